@@ -42,6 +42,11 @@ public class User {
 
     private boolean isActive;
 
+    // bumped whenever previously issued tokens must stop working (deactivation, password/email/role change)
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    private long tokenVersion = 0L;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "user_roles",
@@ -0,0 +1,27 @@
+package com.phegon.FoodApp.auth_users.events;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// published whenever something that is baked into an authenticated principal changes
+// (profile, password, active flag, role definitions), so auth-side caches can drop stale entries
+@Getter
+public class UserAuthChangedEvent {
+
+    private final List<String> emails; // affected users, empty when every user is affected
+    private final boolean allUsers;
+
+    private UserAuthChangedEvent(List<String> emails, boolean allUsers) {
+        this.emails = emails;
+        this.allUsers = allUsers;
+    }
+
+    public static UserAuthChangedEvent forUsers(String... emails) {
+        return new UserAuthChangedEvent(List.of(emails), false);
+    }
+
+    public static UserAuthChangedEvent forAllUsers() {
+        return new UserAuthChangedEvent(List.of(), true);
+    }
+}
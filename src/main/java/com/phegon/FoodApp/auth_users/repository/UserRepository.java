@@ -1,11 +1,41 @@
 package com.phegon.FoodApp.auth_users.repository;
 
 import com.phegon.FoodApp.auth_users.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // streamed with a server-side cursor, must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+
+    // keyset page of [id, tokenVersion] for users whose old tokens have been revoked at least once
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0 AND u.id > :afterId ORDER BY u.id")
+    List<Object[]> findRevokedTokenVersions(@Param("afterId") Long afterId, Pageable pageable);
+
+    // [id, tokenVersion, updatedAt] of users whose token version changed after the given time
+    @Query("SELECT u.id, u.tokenVersion, u.updatedAt FROM User u WHERE u.updatedAt > :since ORDER BY u.updatedAt")
+    List<Object[]> findTokenVersionsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1, u.updatedAt = :now " +
+            "WHERE u.id IN (SELECT ur.id FROM User ur JOIN ur.roles r WHERE r.id = :roleId)")
+    int incrementTokenVersionForRole(@Param("roleId") Long roleId, @Param("now") LocalDateTime now);
 }
@@ -10,12 +10,13 @@ import com.phegon.FoodApp.exceptions.BadRequestException;
 import com.phegon.FoodApp.exceptions.NotFoundException;
 import com.phegon.FoodApp.response.Response;
 import com.phegon.FoodApp.role.entity.Role;
-import com.phegon.FoodApp.role.repository.RoleRepository;
+import com.phegon.FoodApp.role.services.RoleRegistry;
 import com.phegon.FoodApp.security.JwtUtils;
+import com.phegon.FoodApp.security.PasswordHashingExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -27,14 +28,17 @@ import java.util.List;
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final JwtUtils jwtUtils;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
+    private final EmailBloomFilter emailBloomFilter;
 
     @Override
     public Response<?> register(RegistrationRequest registrationRequest) {
         log.info("Registering user: {}", registrationRequest.getEmail());
-        if (userRepository.existsByEmail(registrationRequest.getEmail())) {
+        // a Bloom filter miss proves the email is new, only possible matches go to the database
+        if (emailBloomFilter.mightContain(registrationRequest.getEmail())
+                && userRepository.existsByEmail(registrationRequest.getEmail())) {
            throw new BadRequestException("Email already exists");
         }
 
@@ -43,12 +47,12 @@ public class AuthServiceImpl implements AuthService {
         List<Role> userRoles;
         if ( registrationRequest.getRoles() != null && !registrationRequest.getRoles().isEmpty()) {
             userRoles = registrationRequest.getRoles().stream()
-                    .map(roleName -> roleRepository.findByName(roleName.toUpperCase())
+                    .map(roleName -> roleRegistry.findByName(roleName.toUpperCase())
                             .orElseThrow(() -> new BadRequestException("Role not found: " + roleName)))
                     .toList();
         } else {
             // if no roles are provided, assign the default role
-            Role defaultRole = roleRepository.findByName("CUSTOMER")
+            Role defaultRole = roleRegistry.findByName("CUSTOMER")
                     .orElseThrow(() -> new BadRequestException("Default role not found"));
             userRoles = List.of(defaultRole);
         }
@@ -59,14 +63,19 @@ public class AuthServiceImpl implements AuthService {
                 .email(registrationRequest.getEmail())
                 .phoneNumber(registrationRequest.getPhoneNumber())
                 .address(registrationRequest.getAddress())
-                .password(passwordEncoder.encode(registrationRequest.getPassword()))
+                .password(passwordHashingExecutor.encode(registrationRequest.getPassword()))
                 .roles(userRoles)
                 .isActive(true)
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        // save the user
-        userRepository.save(userToSave);
+        // save the user, the unique constraint still guards against concurrent sign-ups
+        try {
+            userRepository.save(userToSave);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Email already exists");
+        }
+        emailBloomFilter.put(userToSave.getEmail());
         log.info("User registered successfully: {}", registrationRequest.getEmail());
 
         return Response.builder()
@@ -88,12 +97,19 @@ public class AuthServiceImpl implements AuthService {
             throw  new NotFoundException("Account not active. Please contact support.");
         }
         // verify the password
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        if (!passwordHashingExecutor.matches(loginRequest.getPassword(), user.getPassword())) {
             throw new BadRequestException("Invalid password");
         }
 
+        // the password is known to be correct here, so hashes from an older work factor can be upgraded
+        if (passwordHashingExecutor.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingExecutor.encode(loginRequest.getPassword()));
+            userRepository.save(user);
+            log.info("Re-encoded password hash of user {} with the current work factor", user.getId());
+        }
+
         // generate JWT token
-        String token = jwtUtils.generateToken(user.getEmail());
+        String token = jwtUtils.generateToken(user);
 
         // extract roles names as a list
         List<String> roleNames = user.getRoles().stream()
@@ -0,0 +1,91 @@
+package com.phegon.FoodApp.auth_users.services;
+
+import com.phegon.FoodApp.auth_users.entity.User;
+import com.phegon.FoodApp.auth_users.repository.UserRepository;
+import com.phegon.FoodApp.exceptions.NotFoundException;
+import com.phegon.FoodApp.security.AuthUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Resolves the authenticated user's entity at most once per HTTP request. The loaded user is
+ * memoized as a request attribute, so services that ask for it repeatedly (cart and checkout flows)
+ * share one row fetch. Outside a web request every call loads the user.
+ */
+@Component
+public class CurrentUserResolver {
+
+    private static final String REQUEST_ATTRIBUTE_PREFIX = CurrentUserResolver.class.getName() + ".user:";
+
+    private final UserRepository userRepository;
+    private final Counter savedLookups;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CurrentUserResolver(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.savedLookups = Counter.builder("foodapp.current_user.saved_lookups")
+                .description("Current-user lookups answered from the request without a query")
+                .register(meterRegistry);
+    }
+
+    public User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = authentication.getName();
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        String attributeName = REQUEST_ATTRIBUTE_PREFIX + email;
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST) instanceof User user) {
+            savedLookups.increment();
+            return user;
+        }
+
+        User user = load(authentication, email);
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(attributeName, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    /**
+     * Same as {@link #getCurrentUser()}, but guarantees the returned instance is managed by the current
+     * persistence context so changes to it are written on flush. With open-in-view the memoized user
+     * is already managed and this costs nothing.
+     */
+    public User getCurrentUserForUpdate() {
+        User user = getCurrentUser();
+        if (entityManager.contains(user)) {
+            return user;
+        }
+        User managed = entityManager.find(User.class, user.getId());
+        if (managed == null) {
+            throw new NotFoundException("User not found ");
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(REQUEST_ATTRIBUTE_PREFIX + SecurityContextHolder.getContext()
+                    .getAuthentication().getName(), managed, RequestAttributes.SCOPE_REQUEST);
+        }
+        return managed;
+    }
+
+    private User load(Authentication authentication, String email) {
+        // the principal already knows the id, a primary-key lookup can be served by the persistence context
+        if (authentication.getPrincipal() instanceof AuthUser authUser
+                && authUser.getUser() != null && authUser.getUser().getId() != null) {
+            return userRepository.findById(authUser.getUser().getId())
+                    .orElseThrow(() -> new NotFoundException("User not found "));
+        }
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new NotFoundException("User not found "));
+    }
+}
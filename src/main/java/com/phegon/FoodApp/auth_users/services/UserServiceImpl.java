@@ -2,27 +2,32 @@ package com.phegon.FoodApp.auth_users.services;
 
 import com.phegon.FoodApp.auth_users.dtos.UserDto;
 import com.phegon.FoodApp.auth_users.entity.User;
+import com.phegon.FoodApp.auth_users.events.UserAuthChangedEvent;
 import com.phegon.FoodApp.auth_users.repository.UserRepository;
 import com.phegon.FoodApp.aws.AWSS3Service;
 import com.phegon.FoodApp.email_notification.dtos.NotificationDTO;
 import com.phegon.FoodApp.email_notification.services.NotificationService;
 import com.phegon.FoodApp.exceptions.BadRequestException;
-import com.phegon.FoodApp.exceptions.NotFoundException;
 import com.phegon.FoodApp.response.Response;
+import com.phegon.FoodApp.security.PasswordHashingExecutor;
+import com.phegon.FoodApp.security.TokenRevocationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeToken;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
 
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -30,17 +35,19 @@ import java.util.UUID;
 public class UserServiceImpl implements UserService{
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final ModelMapper modelMapper;
     private final NotificationService notificationService;
     private final AWSS3Service awss3Service;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final CurrentUserResolver currentUserResolver;
+    private final EmailBloomFilter emailBloomFilter;
 
 
     @Override
     public User getCurrentLoggedInUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("User not found "));
+        return currentUserResolver.getCurrentUser();
     }
 
     @Override
@@ -59,8 +66,8 @@ public class UserServiceImpl implements UserService{
 
     @Override
     public Response<UserDto> getOwnAccountDetails() {
-        log.info("Fetching own account details for user: {}", getCurrentLoggedInUser().getEmail());
         User user = getCurrentLoggedInUser();
+        log.info("Fetching own account details for user: {}", user.getEmail());
         UserDto userDTO = modelMapper.map(user, UserDto.class);
 
         return Response.<UserDto>builder()
@@ -72,30 +79,49 @@ public class UserServiceImpl implements UserService{
 
     @Override
     public Response<?> updateOwnAccount(UserDto userDTO) {
-        log.info("Updating own account for user: {}", getCurrentLoggedInUser().getEmail());
         // fetch current logged-in user
-        User user = getCurrentLoggedInUser();
+        User user = currentUserResolver.getCurrentUserForUpdate();
+        log.info("Updating own account for user: {}", user.getEmail());
+        String previousEmail = user.getEmail();
 
         String profileUrl = user.getProfileUrl();
 
         MultipartFile imageFile = userDTO.getImageFile();
 
-        // check if new image file was provided
+        // check if new image file was provided, it uploads while the password is hashed and the email checked
+        String imageKey = null;
+        CompletableFuture<URL> upload = null;
         if (imageFile != null && !imageFile.isEmpty()) {
-            // Delete the old image from S3 if it exists
-            if (profileUrl != null && !profileUrl.isEmpty()) {
-                String keyName = profileUrl.substring(profileUrl.lastIndexOf("/") + 1);
-                awss3Service.deleteFile("profile/" + keyName);
-
-                log.info("Deleted old profile image from s3");
+            imageKey = "profile/" + UUID.randomUUID() + "_" + imageFile.getOriginalFilename();
+            upload = awss3Service.uploadFileAsync(imageKey, imageFile);
+        }
+        try {
+            applyAccountChanges(user, userDTO, upload);
+        } catch (RuntimeException e) {
+            if (upload != null) {
+                // the new image is not referenced by anyone
+                awss3Service.discardUpload(upload, imageKey);
             }
-            //upload new image
-            String imageName = UUID.randomUUID().toString() + "_" + imageFile.getOriginalFilename();
-            URL newImageUrl = awss3Service.uploadFile("profile/" + imageName, imageFile);
+            throw e;
+        }
 
-            user.setProfileUrl(newImageUrl.toString());
+        // the old image is removed by the batched delete queue, not within this request
+        if (upload != null && profileUrl != null && !profileUrl.isEmpty()) {
+            // the URL percent-encodes the key
+            awss3Service.deleteFileLater("profile/" + UriUtils.decode(
+                    profileUrl.substring(profileUrl.lastIndexOf("/") + 1), StandardCharsets.UTF_8));
         }
+        emailBloomFilter.put(user.getEmail());
+        eventPublisher.publishEvent(UserAuthChangedEvent.forUsers(previousEmail, user.getEmail()));
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Own account updated successfully")
+                .data(modelMapper.map(user, UserDto.class))
+                .build();
+    }
 
+    private void applyAccountChanges(User user, UserDto userDTO, CompletableFuture<URL> upload) {
         // update user details
         if ( userDTO.getName() != null){
             user.setName(userDTO.getName());
@@ -106,36 +132,45 @@ public class UserServiceImpl implements UserService{
         if (userDTO.getAddress() != null) {
             user.setAddress(userDTO.getAddress());
         }
+        boolean credentialsChanged = false;
         if (userDTO.getPassword() != null) {
-            user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+            user.setPassword(passwordHashingExecutor.encode(userDTO.getPassword()));
+            credentialsChanged = true;
         }
         if (userDTO.getEmail() != null && !userDTO.getEmail().equals(user.getEmail())) {
             // Check if the new email is already taken
-            if (userRepository.existsByEmail(userDTO.getEmail())) {
+            if (emailBloomFilter.mightContain(userDTO.getEmail()) && userRepository.existsByEmail(userDTO.getEmail())) {
                 throw new BadRequestException("Email already exists");
             }
             user.setEmail(userDTO.getEmail());
+            credentialsChanged = true;
+        }
+        if (credentialsChanged) {
+            // tokens issued with the old password or email must no longer be accepted
+            tokenRevocationRegistry.revokeTokens(user);
+        }
+        if (upload != null) {
+            user.setProfileUrl(upload.join().toString());
         }
-
 
         // save updated user
-        userRepository.save(user);
-
-        return Response.builder()
-                .statusCode(HttpStatus.OK.value())
-                .message("Own account updated successfully")
-                .data(modelMapper.map(user, UserDto.class))
-                .build();
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Email already exists");
+        }
     }
 
     @Override
     public Response<?> deactivateOwnAccount() {
-        log.info("Deactivating own account for user: {}", getCurrentLoggedInUser().getEmail());
-        User user = getCurrentLoggedInUser();
+        User user = currentUserResolver.getCurrentUserForUpdate();
+        log.info("Deactivating own account for user: {}", user.getEmail());
 
         // deactivate user
         user.setActive(false);
+        tokenRevocationRegistry.revokeTokens(user);
         userRepository.save(user);
+        eventPublisher.publishEvent(UserAuthChangedEvent.forUsers(user.getEmail()));
 
         // send notification email
         NotificationDTO notificationDTO = NotificationDTO.builder()
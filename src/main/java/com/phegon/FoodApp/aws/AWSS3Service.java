@@ -3,8 +3,30 @@ package com.phegon.FoodApp.aws;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public interface AWSS3Service {
     URL uploadFile(String keyName, MultipartFile file);
+
+    // the multipart file is only readable during the request, join the future before responding
+    CompletableFuture<URL> uploadFileAsync(String keyName, MultipartFile file);
+
     void deleteFile(String keyName);
+
+    // records the delete in its own write, the object is removed in a later batch
+    void deleteFileLater(String keyName);
+
+    /**
+     * Waits for an upload that will not be referenced, since the multipart file is gone once the
+     * request ends, then queues its delete. A failed upload may still have stored the object.
+     */
+    default void discardUpload(CompletableFuture<URL> upload, String keyName) {
+        try {
+            upload.join();
+        } catch (CompletionException e) {
+            // the caller is already failing, the upload error adds nothing
+        }
+        deleteFileLater(keyName);
+    }
 }
@@ -1,38 +1,103 @@
 package com.phegon.FoodApp.aws;
 
 
-import lombok.RequiredArgsConstructor;
+import com.phegon.FoodApp.aws.entity.PendingDelete;
+import com.phegon.FoodApp.aws.repository.PendingDeleteRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
 @Slf4j
-@RequiredArgsConstructor
 public class AWSS3ServiceImpl implements  AWSS3Service {
 
+    // S3 rejects multipart parts below 5 MB, except the last one
+    static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes();
+
     private  final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+    private final PendingDeleteRepository pendingDeleteRepository;
+    private final String bucketName;
+    private final long multipartThreshold;
+    private final int partSize;
+    // reads the multipart streams for the async client, which must not block its own threads
+    private final ExecutorService streamReader;
+
+    public AWSS3ServiceImpl(S3Client s3Client,
+                            S3AsyncClient s3AsyncClient,
+                            PendingDeleteRepository pendingDeleteRepository,
+                            @Value("${aws.s3.bucket}") String bucketName,
+                            @Value("${aws.s3.multipart-threshold:16MB}") DataSize multipartThreshold,
+                            @Value("${aws.s3.multipart-part-size:8MB}") DataSize partSize,
+                            @Value("${aws.s3.upload-parallelism:8}") int uploadParallelism) {
+        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
+        this.pendingDeleteRepository = pendingDeleteRepository;
+        this.bucketName = bucketName;
+        this.partSize = (int) Math.max(MIN_PART_SIZE, partSize.toBytes());
+        this.multipartThreshold = Math.max(this.partSize, multipartThreshold.toBytes());
 
-    @Value("${aws.s3.bucket}")
-    private String bucketName;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.streamReader = Executors.newFixedThreadPool(uploadParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "s3-upload-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streamReader.shutdownNow();
+    }
 
+    /**
+     * Streams the file to S3 without reading it into a byte array. Files up to the multipart
+     * threshold go in one PUT straight from the multipart stream, larger ones as a multipart upload
+     * through a single part-sized buffer, so the heap held per upload is one part plus the SDK's
+     * request objects, whatever the file size.
+     */
     @Override
     public URL uploadFile(String keyName, MultipartFile file) {
         log.info("Uploading file to S3 with key: {}", keyName);
         try {
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(keyName)
-                    .contentType(file.getContentType())
-                    .build();
-            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(file.getBytes()));
+            if (file.getSize() > multipartThreshold) {
+                uploadMultipart(keyName, file);
+            } else {
+                PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(keyName)
+                        .contentType(file.getContentType())
+                        .build();
+                // the provider reopens the stream if the SDK retries, nothing is buffered to replay it
+                s3Client.putObject(putObjectRequest, RequestBody.fromContentProvider(
+                        () -> openStream(file), file.getSize(), contentTypeOf(file)));
+            }
             return s3Client.utilities().getUrl(builder -> builder.bucket(bucketName).key(keyName));
         } catch (Exception e) {
             log.error("Error uploading file to S3: {}", e.getMessage());
@@ -40,6 +105,42 @@ public class AWSS3ServiceImpl implements  AWSS3Service {
         }
     }
 
+    @Override
+    public CompletableFuture<URL> uploadFileAsync(String keyName, MultipartFile file) {
+        log.info("Uploading file to S3 asynchronously with key: {}", keyName);
+        InputStream in;
+        try {
+            in = file.getInputStream();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to upload file to S3", e));
+        }
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName)
+                .contentType(file.getContentType())
+                .build();
+        return s3AsyncClient.putObject(putObjectRequest, AsyncRequestBody.fromInputStream(in, file.getSize(), streamReader))
+                .handle((response, error) -> {
+                    closeQuietly(in);
+                    if (error != null) {
+                        log.error("Error uploading file to S3: {}", error.getMessage());
+                        throw new RuntimeException("Failed to upload file to S3", error);
+                    }
+                    return s3Client.utilities().getUrl(builder -> builder.bucket(bucketName).key(keyName));
+                });
+    }
+
+    @Override
+    public void deleteFileLater(String keyName) {
+        LocalDateTime now = LocalDateTime.now();
+        pendingDeleteRepository.save(PendingDelete.builder()
+                .keyName(keyName)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        log.info("Queued S3 delete for key: {}", keyName);
+    }
+
     @Override
     public void deleteFile(String keyName) {
         DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
@@ -50,5 +151,71 @@ public class AWSS3ServiceImpl implements  AWSS3Service {
         log.info("Deleted file from S3 with key: {}", keyName);
     }
 
+    private void uploadMultipart(String keyName, MultipartFile file) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(builder -> builder
+                .bucket(bucketName)
+                .key(keyName)
+                .contentType(file.getContentType())).uploadId();
+        try (InputStream in = file.getInputStream()) {
+            byte[] buffer = new byte[(int) Math.min(partSize, file.getSize())];
+            List<CompletedPart> parts = new ArrayList<>();
+            int length;
+            while ((length = readFully(in, buffer)) > 0) {
+                int partNumber = parts.size() + 1;
+                int partLength = length;
+                // a ByteArrayInputStream over the reused buffer: no copy, and mark/reset covers retries
+                String eTag = s3Client.uploadPart(builder -> builder
+                                .bucket(bucketName)
+                                .key(keyName)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) partLength),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, partLength), partLength)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+            }
+            s3Client.completeMultipartUpload(builder -> builder
+                    .bucket(bucketName)
+                    .key(keyName)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build()));
+            log.info("Uploaded {} in {} parts", keyName, parts.size());
+        } catch (IOException | RuntimeException e) {
+            // parts of an unfinished upload are stored (and billed) until aborted
+            s3Client.abortMultipartUpload(builder -> builder.bucket(bucketName).key(keyName).uploadId(uploadId));
+            throw e;
+        }
+    }
+
+    // fills the buffer unless the stream ends first, returns the number of bytes read
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int filled = 0;
+        while (filled < buffer.length) {
+            int read = in.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                break;
+            }
+            filled += read;
+        }
+        return filled;
+    }
 
+    private static InputStream openStream(MultipartFile file) {
+        try {
+            return file.getInputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.debug("Could not close upload stream: {}", e.getMessage());
+        }
+    }
+
+    private static String contentTypeOf(MultipartFile file) {
+        return file.getContentType() != null ? file.getContentType() : "application/octet-stream";
+    }
 }
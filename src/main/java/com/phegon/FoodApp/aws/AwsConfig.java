@@ -1,14 +1,19 @@
 package com.phegon.FoodApp.aws;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
 
 @Configuration
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
 public class AwsConfig {
     @Value("${aws.s3.region}")
     private String awsRegion;
@@ -21,6 +26,12 @@ public class AwsConfig {
     @Value("${aws.s3.secretKey}")
     private String awsSecretKey;
 
+    @Value("${aws.s3.multipart-threshold:16MB}")
+    private DataSize multipartThreshold;
+
+    @Value("${aws.s3.multipart-part-size:8MB}")
+    private DataSize multipartPartSize;
+
 
     @Bean
     public StaticCredentialsProvider staticCredentialsProvider() {
@@ -39,5 +50,21 @@ public class AwsConfig {
                 .build();
     }
 
+    // non-blocking client for the upload futures and batched deletes, large bodies go as multipart uploads
+    @Bean
+    public S3AsyncClient s3AsyncClient(StaticCredentialsProvider credentialsProvider) {
+        return S3AsyncClient.builder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(credentialsProvider)
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(multipartThreshold.toBytes())
+                        .minimumPartSizeInBytes(Math.max(AWSS3ServiceImpl.MIN_PART_SIZE, multipartPartSize.toBytes()))
+                        // at most two parts of each upload are buffered at a time
+                        .apiCallBufferSizeInBytes(2 * Math.max(AWSS3ServiceImpl.MIN_PART_SIZE, multipartPartSize.toBytes()))
+                        .build())
+                .build();
+    }
+
 
 }
@@ -0,0 +1,200 @@
+package com.phegon.FoodApp.aws;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Object storage on the local disk, for edge nodes and environments without S3. Contents are
+ * stored once per SHA-256 under sharded directories (blobs/ab/cd/abcd...), and each key is a hard
+ * link to its blob under keys/, so identical images share the bytes and serving a key needs no
+ * lookup. Objects are served by {@link LocalImageController}.
+ * <p>
+ * Linking a key to a blob and removing a blob's last link are serialized per hash, so a delete
+ * cannot unlink a blob that a concurrent upload of the same content is about to link.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+@Slf4j
+public class LocalFileStorageService implements AWSS3Service {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Object[] hashLocks = new Object[LOCK_STRIPES];
+    private final Path blobsRoot;
+    private final Path keysRoot;
+    private final Path tempRoot;
+    private final String baseUrl;
+
+    public LocalFileStorageService(@Value("${storage.local.root:./data/storage}") String root,
+                                   @Value("${storage.local.base-url:http://localhost:8090/api/v1/images}") String baseUrl) throws IOException {
+        Path rootPath = Path.of(root).toAbsolutePath().normalize();
+        this.blobsRoot = Files.createDirectories(rootPath.resolve("blobs"));
+        this.keysRoot = Files.createDirectories(rootPath.resolve("keys"));
+        this.tempRoot = Files.createDirectories(rootPath.resolve("tmp"));
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            hashLocks[i] = new Object();
+        }
+        log.info("Storing objects on local disk under {}", rootPath);
+    }
+
+    @Override
+    public URL uploadFile(String keyName, MultipartFile file) {
+        log.info("Storing file locally with key: {}", keyName);
+        try {
+            Path keyPath = resolveKey(keyName);
+            Files.createDirectories(keyPath.getParent());
+            Path temp = Files.createTempFile(tempRoot, "upload-", ".tmp");
+            try {
+                String hash = writeHashed(file, temp);
+                Path blob = blobPath(hash);
+                synchronized (lockFor(hash)) {
+                    if (!Files.exists(blob)) {
+                        Files.createDirectories(blob.getParent());
+                        Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                    Files.deleteIfExists(keyPath);
+                    try {
+                        Files.createLink(keyPath, blob);
+                    } catch (UnsupportedOperationException | FileSystemException e) {
+                        // no hard links on this file system, keep a copy per key instead
+                        Files.copy(blob, keyPath, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return URI.create(baseUrl + "/" + UriUtils.encodePath(keyName, StandardCharsets.UTF_8)).toURL();
+        } catch (IOException e) {
+            log.error("Error storing file locally: {}", e.getMessage());
+            throw new UncheckedIOException("Failed to store file", e);
+        }
+    }
+
+    // the disk write is as fast as handing the stream to another thread, so it completes inline
+    @Override
+    public CompletableFuture<URL> uploadFileAsync(String keyName, MultipartFile file) {
+        try {
+            return CompletableFuture.completedFuture(uploadFile(keyName, file));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void deleteFile(String keyName) {
+        try {
+            Path keyPath = resolveKey(keyName);
+            if (!Files.exists(keyPath)) {
+                return;
+            }
+            String hash = hashOfLinked(keyPath);
+            synchronized (lockFor(hash)) {
+                Files.deleteIfExists(keyPath);
+                deleteBlobIfUnreferenced(blobPath(hash));
+            }
+            log.info("Deleted local file with key: {}", keyName);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete file " + keyName, e);
+        }
+    }
+
+    // a local delete is a couple of unlinks, there is nothing worth queueing
+    @Override
+    public void deleteFileLater(String keyName) {
+        deleteFile(keyName);
+    }
+
+    /**
+     * Returns the file of the key, or null when there is none. Keys that would resolve outside the
+     * storage root are treated as missing.
+     */
+    public Path find(String keyName) {
+        Path keyPath;
+        try {
+            keyPath = resolveKey(keyName);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return Files.isRegularFile(keyPath) ? keyPath : null;
+    }
+
+    // streamed through the digest with a small buffer, the file is never held in memory
+    private static String writeHashed(MultipartFile file, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest);
+             OutputStream out = Files.newOutputStream(target)) {
+            in.transferTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Object lockFor(String hash) {
+        return hashLocks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    // keys do not record their blob, so the content is hashed again to find it (deletes are rare)
+    private String hashOfLinked(Path keyPath) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(keyPath), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void deleteBlobIfUnreferenced(Path blob) throws IOException {
+        if (!Files.exists(blob)) {
+            return;
+        }
+        try {
+            int links = (Integer) Files.getAttribute(blob, "unix:nlink");
+            if (links <= 1) {
+                Files.delete(blob);
+            }
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            // link counts are not available, other keys may share the blob so it is kept
+            log.debug("Keeping blob {}, link count unavailable", blob.getFileName());
+        }
+    }
+
+    private Path blobPath(String hash) {
+        return blobsRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Path resolveKey(String keyName) {
+        Path keyPath = keysRoot.resolve(keyName).normalize();
+        if (!keyPath.startsWith(keysRoot) || keyPath.equals(keysRoot)) {
+            throw new IllegalArgumentException("Invalid key: " + keyName);
+        }
+        return keyPath;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
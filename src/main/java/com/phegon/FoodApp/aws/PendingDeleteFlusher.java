@@ -0,0 +1,117 @@
+package com.phegon.FoodApp.aws;
+
+import com.phegon.FoodApp.aws.entity.PendingDelete;
+import com.phegon.FoodApp.aws.repository.PendingDeleteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the pending_deletes table with multi-object DeleteObjects calls of up to 1000 keys. Keys
+ * S3 reports as failed, or whole batches that fail, are retried with exponential backoff until
+ * the attempt limit, after which the key is logged and dropped. Each batch is claimed with
+ * FOR UPDATE SKIP LOCKED and settled in the same transaction, so nodes never flush the same rows.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
+@Slf4j
+public class PendingDeleteFlusher {
+
+    // the DeleteObjects limit per request
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final PendingDeleteRepository pendingDeleteRepository;
+    private final S3AsyncClient s3AsyncClient;
+    private final String bucketName;
+    private final int maxAttempts;
+    private final TransactionTemplate transactionTemplate;
+
+    public PendingDeleteFlusher(PendingDeleteRepository pendingDeleteRepository,
+                                S3AsyncClient s3AsyncClient,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${aws.s3.bucket}") String bucketName,
+                                @Value("${aws.s3.delete-max-attempts:10}") int maxAttempts) {
+        this.pendingDeleteRepository = pendingDeleteRepository;
+        this.s3AsyncClient = s3AsyncClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bucketName = bucketName;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${aws.s3.delete-flush-ms:5000}")
+    public void flush() {
+        Integer claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> {
+                List<PendingDelete> batch = pendingDeleteRepository.claimDue(LocalDateTime.now(), MAX_BATCH_SIZE);
+                if (!batch.isEmpty()) {
+                    deleteBatch(batch);
+                }
+                return batch.size();
+            });
+        } while (claimed != null && claimed == MAX_BATCH_SIZE);
+    }
+
+    private void deleteBatch(List<PendingDelete> batch) {
+        List<ObjectIdentifier> objects = batch.stream()
+                .map(pending -> ObjectIdentifier.builder().key(pending.getKeyName()).build())
+                .toList();
+
+        Map<String, String> failures = new HashMap<>();
+        try {
+            // quiet mode: the response only lists the keys that could not be deleted
+            DeleteObjectsResponse response = s3AsyncClient.deleteObjects(builder -> builder
+                    .bucket(bucketName)
+                    .delete(delete -> delete.objects(objects).quiet(true))).join();
+            for (S3Error error : response.errors()) {
+                failures.put(error.key(), error.code() + ": " + error.message());
+            }
+        } catch (RuntimeException e) {
+            log.warn("DeleteObjects for {} keys failed: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> failures.put(pending.getKeyName(), String.valueOf(e.getMessage())));
+        }
+
+        List<PendingDelete> done = new ArrayList<>();
+        List<PendingDelete> retries = new ArrayList<>();
+        for (PendingDelete pending : batch) {
+            String error = failures.get(pending.getKeyName());
+            if (error == null) {
+                done.add(pending);
+            } else if (pending.getAttempts() + 1 >= maxAttempts) {
+                log.error("Giving up deleting {} after {} attempts: {}", pending.getKeyName(), maxAttempts, error);
+                done.add(pending);
+            } else {
+                pending.setAttempts(pending.getAttempts() + 1);
+                pending.setNextAttemptAt(LocalDateTime.now().plus(backoff(pending.getAttempts())));
+                pending.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+                retries.add(pending);
+            }
+        }
+        pendingDeleteRepository.deleteAllInBatch(done);
+        // the retries are managed by the claiming transaction, their changes are written on commit
+        log.info("Flushed {} pending S3 deletes, {} failed and were queued for retry", batch.size(), retries.size());
+    }
+
+    private static Duration backoff(int attempts) {
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 16));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+}
@@ -0,0 +1,40 @@
+package com.phegon.FoodApp.aws.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// an object key waiting to be removed from the bucket by PendingDeleteFlusher
+@Entity
+@Data
+@Table(name = "pending_deletes", indexes = {
+        @Index(name = "idx_pending_deletes_next_attempt_at", columnList = "next_attempt_at, id")
+})
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PendingDelete {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "key_name", nullable = false, length = 1024)
+    private String keyName;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.phegon.FoodApp.aws.repository;
+
+import com.phegon.FoodApp.aws.entity.PendingDelete;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PendingDeleteRepository extends JpaRepository<PendingDelete, Long> {
+
+    // the claimed rows stay locked until the transaction ends, flushers on other nodes skip them
+    @Query(value = "SELECT * FROM pending_deletes WHERE next_attempt_at <= :now ORDER BY id " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<PendingDelete> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -10,6 +10,7 @@ import com.phegon.FoodApp.cart.repository.CartRepository;
 import com.phegon.FoodApp.exceptions.NotFoundException;
 import com.phegon.FoodApp.menu.entity.Menu;
 import com.phegon.FoodApp.menu.repository.MenuRepository;
+import com.phegon.FoodApp.pricing.services.PricingEngine;
 import com.phegon.FoodApp.response.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +35,7 @@ public class CartServiceImpl implements CartService{
     private final UserService userService;
     private final ModelMapper modelMapper;
     private final MenuRepository menuRepository;
+    private final PricingEngine pricingEngine;
 
     @Override
     public Response<?> addItemToCart(CartDTO cartDTO) {
@@ -46,6 +48,8 @@ public class CartServiceImpl implements CartService{
 
         Menu menu = menuRepository.findById(menuId)
                 .orElseThrow(() -> new NotFoundException("Menu item not found with id: " + menuId));
+        // happy hour and lunch specials, resolved in memory from the compiled price timeline
+        BigDecimal unitPrice = pricingEngine.effectivePrice(menu);
         Cart cart = cartRepository.findByUser_Id(user.getId())
                 .orElseGet(() -> {
                     Cart newCart = new Cart();
@@ -61,6 +65,7 @@ public class CartServiceImpl implements CartService{
         if (optinalCartItem.isPresent()) {
             CartItem cartItem = optinalCartItem.get();
             cartItem.setQuantity(cartItem.getQuantity() + quantity);
+            cartItem.setPricePerUnit(unitPrice);
             cartItem.setSubTotal(cartItem.getPricePerUnit().multiply(BigDecimal.valueOf(cartItem.getQuantity())));
             cartItemRepository.save(cartItem);
         } else {
@@ -69,8 +74,8 @@ public class CartServiceImpl implements CartService{
                     .cart(cart)
                     .menu(menu)
                     .quantity(quantity)
-                    .pricePerUnit(menu.getPrice())
-                    .subTotal(menu.getPrice().multiply(BigDecimal.valueOf(quantity)))
+                    .pricePerUnit(unitPrice)
+                    .subTotal(unitPrice.multiply(BigDecimal.valueOf(quantity)))
                     .build();
             cart.getItems().add(newCartItem);
             cartItemRepository.save(newCartItem);
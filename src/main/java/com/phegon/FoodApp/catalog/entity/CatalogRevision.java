@@ -0,0 +1,25 @@
+package com.phegon.FoodApp.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// single-row counter bumped after every committed catalog write, polled by each node to sync its snapshot
+@Entity
+@Data
+@Table(name = "catalog_revision")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogRevision {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long revision;
+}
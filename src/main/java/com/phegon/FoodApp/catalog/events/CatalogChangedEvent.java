@@ -0,0 +1,14 @@
+package com.phegon.FoodApp.catalog.events;
+
+import lombok.Getter;
+
+// published after a new catalog snapshot has been swapped in, so derived views can be regenerated
+@Getter
+public class CatalogChangedEvent {
+
+    private final long version;
+
+    public CatalogChangedEvent(long version) {
+        this.version = version;
+    }
+}
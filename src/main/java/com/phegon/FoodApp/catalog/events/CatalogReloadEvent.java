@@ -0,0 +1,15 @@
+package com.phegon.FoodApp.catalog.events;
+
+import lombok.Getter;
+
+// published during a full catalog reload, before the rebuilt snapshot is swapped in, so indexes read
+// from the database are rebuilt before anything is served or cached under the new version
+@Getter
+public class CatalogReloadEvent {
+
+    private final long version;
+
+    public CatalogReloadEvent(long version) {
+        this.version = version;
+    }
+}
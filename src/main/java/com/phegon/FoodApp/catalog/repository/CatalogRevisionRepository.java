@@ -0,0 +1,19 @@
+package com.phegon.FoodApp.catalog.repository;
+
+import com.phegon.FoodApp.catalog.entity.CatalogRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface CatalogRevisionRepository extends JpaRepository<CatalogRevision, Long> {
+
+    @Query("SELECT r.revision FROM CatalogRevision r WHERE r.id = " + CatalogRevision.ID)
+    Optional<Long> findRevision();
+
+    // the row lock is held until commit, so a read in the same transaction returns this increment
+    @Modifying
+    @Query("UPDATE CatalogRevision r SET r.revision = r.revision + 1 WHERE r.id = " + CatalogRevision.ID)
+    int increment();
+}
@@ -0,0 +1,69 @@
+package com.phegon.FoodApp.catalog.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for catalog endpoints. The strong ETag is derived from the shared catalog revision
+ * and the pricing slot of the snapshot, which every node serves the same content for, so an
+ * If-None-Match hit is answered with 304 by any node before the service (and any repository work) runs.
+ */
+@Component
+public class CatalogHttpCaching {
+
+    // for snapshots holding local writes not yet matched to a shared revision, until the next sync:
+    // their version counter is per node and restarts with the process
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+    private final CatalogService catalogService;
+    private final CacheControl cacheControl;
+
+    public CatalogHttpCaching(CatalogService catalogService,
+                              @Value("${catalog.http.max-age:0s}") Duration maxAge) {
+        this.catalogService = catalogService;
+        this.cacheControl = maxAge.isZero()
+                ? CacheControl.noCache().cachePublic()
+                : CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    public <T> ResponseEntity<T> respond(WebRequest request, Supplier<T> body) {
+        // read before the body: if the catalog changes in between, the client just revalidates once more
+        String eTag = eTag(catalogService.current());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .body(body.get());
+    }
+
+    public String eTag(CatalogSnapshot snapshot) {
+        return "\"catalog-" + contentVersion(snapshot) + "\"";
+    }
+
+    // a strong ETag must differ per content coding, so compressed bodies get their own tag
+    public String eTag(CatalogSnapshot snapshot, String contentCoding) {
+        return "\"catalog-" + contentVersion(snapshot) + "-" + contentCoding + "\"";
+    }
+
+    private static String contentVersion(CatalogSnapshot snapshot) {
+        return snapshot.getRevision() >= 0
+                ? "r" + snapshot.getRevision() + "-s" + snapshot.getPricingSlot()
+                : EPOCH + "-" + snapshot.getVersion();
+    }
+
+    public String cacheControlHeader() {
+        return cacheControl.getHeaderValue();
+    }
+}
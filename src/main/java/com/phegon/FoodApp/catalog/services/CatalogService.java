@@ -0,0 +1,406 @@
+package com.phegon.FoodApp.catalog.services;
+
+import com.phegon.FoodApp.catalog.entity.CatalogRevision;
+import com.phegon.FoodApp.catalog.events.CatalogChangedEvent;
+import com.phegon.FoodApp.catalog.events.CatalogReloadEvent;
+import com.phegon.FoodApp.catalog.repository.CatalogRevisionRepository;
+import com.phegon.FoodApp.catalog.services.CatalogSnapshot.RatingSummary;
+import com.phegon.FoodApp.category.dtos.CategoryDTO;
+import com.phegon.FoodApp.category.entity.Category;
+import com.phegon.FoodApp.category.repository.CategoryRepository;
+import com.phegon.FoodApp.menu.dtos.MenuDTO;
+import com.phegon.FoodApp.menu.entity.Menu;
+import com.phegon.FoodApp.menu.repository.MenuRepository;
+import com.phegon.FoodApp.pricing.services.PricingEngine;
+import com.phegon.FoodApp.review.events.ReviewCreatedEvent;
+import com.phegon.FoodApp.review.repository.MenuRatingSummaryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Owns the current {@link CatalogSnapshot}. Reads return the volatile snapshot without locking or
+ * touching the database; catalog writes copy the affected maps, build a new snapshot with the next
+ * version and swap it in. Writers are serialized on this object.
+ * <p>
+ * Snapshots are per node. Every write also bumps the shared {@link CatalogRevision}, and each node
+ * polls it and rebuilds when another node has moved it, so all nodes converge within the poll
+ * interval. Every full rebuild publishes a {@link CatalogReloadEvent} first, for the other per node
+ * views of the catalog. Write methods must be called after the database write has committed.
+ */
+@Component
+@Slf4j
+public class CatalogService {
+
+    public static final String VERSION_META_KEY = "catalogVersion";
+
+    private final CategoryRepository categoryRepository;
+    private final MenuRepository menuRepository;
+    private final MenuRatingSummaryRepository menuRatingSummaryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PricingEngine pricingEngine;
+    private final CatalogRevisionRepository catalogRevisionRepository;
+    private final TransactionTemplate revisionTransaction;
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+
+    // shared revision the snapshot is known to include, guarded by this
+    private long seenRevision = -1;
+
+    public CatalogService(CategoryRepository categoryRepository,
+                          MenuRepository menuRepository,
+                          MenuRatingSummaryRepository menuRatingSummaryRepository,
+                          PlatformTransactionManager transactionManager,
+                          ApplicationEventPublisher eventPublisher,
+                          PricingEngine pricingEngine,
+                          CatalogRevisionRepository catalogRevisionRepository,
+                          MeterRegistry meterRegistry) {
+        this.categoryRepository = categoryRepository;
+        this.menuRepository = menuRepository;
+        this.menuRatingSummaryRepository = menuRatingSummaryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+        this.pricingEngine = pricingEngine;
+        this.catalogRevisionRepository = catalogRevisionRepository;
+        // also used from after-commit listeners, where only a new transaction can commit
+        this.revisionTransaction = new TransactionTemplate(transactionManager);
+        this.revisionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("foodapp.catalog.version", this, catalog -> catalog.snapshot.getVersion())
+                .description("Version of the catalog snapshot currently being served")
+                .register(meterRegistry);
+    }
+
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        if (current != CatalogSnapshot.EMPTY) {
+            return current;
+        }
+        // requests can arrive before ApplicationReadyEvent, load on first use instead of serving nothing
+        synchronized (this) {
+            if (snapshot == CatalogSnapshot.EMPTY) {
+                syncWithDatabase();
+            }
+            return snapshot;
+        }
+    }
+
+    public Map<String, Serializable> versionMeta(CatalogSnapshot snapshot) {
+        return Map.of(VERSION_META_KEY, snapshot.getVersion());
+    }
+
+    /**
+     * Rebuilds the snapshot if another node committed a catalog write since the last sync, or if
+     * nothing has been loaded yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${catalog.sync-ms:5000}", initialDelayString = "${catalog.sync-ms:5000}")
+    public synchronized void syncWithDatabase() {
+        long revision = readRevision();
+        if (revision != seenRevision || snapshot == CatalogSnapshot.EMPTY) {
+            // read before loading, a write committed meanwhile just triggers one more rebuild
+            seenRevision = revision;
+            reload(revision);
+        }
+    }
+
+    /**
+     * Reloads the whole catalog after bulk writes. Every write bumps the revision only after it
+     * committed, so the reload that follows this bump sees all writes up to it.
+     */
+    public synchronized void rebuild() {
+        long revision = bumpRevision();
+        if (revision >= 0) {
+            seenRevision = revision;
+        }
+        reload(revision);
+    }
+
+    // revision is the shared revision the reloaded snapshot matches, or -1 if unknown
+    private void reload(long revision) {
+        // rules may have been changed on another node, effective prices below use the reloaded ones
+        pricingEngine.reload();
+        CatalogSnapshot rebuilt = readOnlyTransaction.execute(status -> {
+            Map<Long, CategoryDTO> categories = new HashMap<>();
+            for (CategoryDTO category : categoryRepository.findCategorySummaries()) {
+                categories.put(category.getId(), category);
+            }
+
+            Map<Long, RatingSummary> ratings = new HashMap<>();
+            menuRatingSummaryRepository.findAll()
+                    .forEach(summary -> ratings.put(summary.getMenuId(), RatingSummary.of(summary)));
+
+            Map<Long, MenuDTO> menus = new HashMap<>();
+            int slot = pricingEngine.currentSlot();
+            for (Menu menu : menuRepository.findAllWithCategory()) {
+                menus.put(menu.getId(), toMenuDTO(menu, ratings.getOrDefault(menu.getId(), RatingSummary.NONE), slot));
+            }
+            return new CatalogSnapshot(snapshot.getVersion() + 1, revision, slot, categories, menus, ratings);
+        });
+        // the search indexes rebuild here, results cached under the new version must come from them
+        eventPublisher.publishEvent(new CatalogReloadEvent(rebuilt.getVersion()));
+        snapshot = rebuilt;
+        eventPublisher.publishEvent(new CatalogChangedEvent(rebuilt.getVersion()));
+        log.info("Catalog snapshot v{} built with {} categories and {} menus",
+                rebuilt.getVersion(), rebuilt.getCategories().size(), rebuilt.getMenus().size());
+    }
+
+    public synchronized void putMenu(Menu menu) {
+        CatalogSnapshot current = current();
+        long revision = publishWrite();
+        Map<Long, MenuDTO> menus = new HashMap<>(current.menusById());
+        // priced for the snapshot's slot like every other menu, the slot refresh moves them together
+        MenuDTO previous = menus.put(menu.getId(),
+                toMenuDTO(menu, current.getRating(menu.getId()), current.getPricingSlot()));
+        Map<Long, CategoryDTO> categories = withMenuStats(current.categoriesById(), menus,
+                previous != null ? previous.getCategoryId() : null, menus.get(menu.getId()).getCategoryId());
+        swap(current, revision, current.getPricingSlot(), categories, menus, current.ratings());
+    }
+
+    public synchronized void removeMenu(Long menuId) {
+        CatalogSnapshot current = current();
+        long revision = publishWrite();
+        Map<Long, MenuDTO> menus = new HashMap<>(current.menusById());
+        Map<Long, RatingSummary> ratings = new HashMap<>(current.ratings());
+        MenuDTO removed = menus.remove(menuId);
+        ratings.remove(menuId);
+        Map<Long, CategoryDTO> categories = removed == null ? current.categoriesById()
+                : withMenuStats(current.categoriesById(), menus, removed.getCategoryId());
+        swap(current, revision, current.getPricingSlot(), categories, menus, ratings);
+    }
+
+    public synchronized void putCategory(Category category) {
+        CatalogSnapshot current = current();
+        long revision = publishWrite();
+        Map<Long, CategoryDTO> categories = new HashMap<>(current.categoriesById());
+        categories.put(category.getId(), toCategoryDTO(category));
+        swap(current, revision, current.getPricingSlot(),
+                withMenuStats(categories, current.menusById(), category.getId()), current.menusById(), current.ratings());
+    }
+
+    // menus are cascade-deleted with their category
+    public synchronized void removeCategory(Long categoryId) {
+        CatalogSnapshot current = current();
+        long revision = publishWrite();
+        Map<Long, CategoryDTO> categories = new HashMap<>(current.categoriesById());
+        Map<Long, MenuDTO> menus = new HashMap<>(current.menusById());
+        Map<Long, RatingSummary> ratings = new HashMap<>(current.ratings());
+        categories.remove(categoryId);
+        for (MenuDTO menu : current.getMenusInCategory(categoryId)) {
+            menus.remove(menu.getId());
+            ratings.remove(menu.getId());
+        }
+        swap(current, revision, current.getPricingSlot(), categories, menus, ratings);
+    }
+
+    // the summary row is already updated in the review's transaction, mirror it once that commits
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        recordRating(event.getMenuId(), event.getRating());
+    }
+
+    public synchronized void recordRating(Long menuId, int rating) {
+        CatalogSnapshot current = current();
+        long revision = publishWrite();
+        MenuDTO menu = current.findMenu(menuId).orElse(null);
+        if (menu == null) {
+            return;
+        }
+        RatingSummary summary = current.getRating(menuId).plus(rating);
+
+        Map<Long, RatingSummary> ratings = new HashMap<>(current.ratings());
+        Map<Long, MenuDTO> menus = new HashMap<>(current.menusById());
+        ratings.put(menuId, summary);
+        menus.put(menuId, withRating(menu, summary));
+        swap(current, revision, current.getPricingSlot(), current.categoriesById(), menus, ratings);
+    }
+
+    /**
+     * Reprices the catalog on each slot boundary. The rules are reloaded first, as a safety net for
+     * rule changes whose revision bump was missed.
+     */
+    @Scheduled(cron = "${pricing.refresh-cron:0 */15 * * * *}", zone = "${pricing.zone:}")
+    public synchronized void refreshPricesOnSlot() {
+        pricingEngine.reload();
+        refreshPrices(current().getRevision());
+    }
+
+    /**
+     * Reprices the catalog after a pricing rule change already applied to the local
+     * {@link PricingEngine}, and bumps the revision so the other nodes reload the rules.
+     */
+    public synchronized void pricingRulesChanged() {
+        refreshPrices(publishWrite());
+    }
+
+    /**
+     * Re-resolves every menu's effective price for the current pricing slot and swaps in a new
+     * snapshot if any changed, so requests read prices from the snapshot instead of evaluating rules.
+     * A new slot or revision is swapped in even without price changes, the ETag is derived from both.
+     */
+    private void refreshPrices(long revision) {
+        CatalogSnapshot current = current();
+        int slot = pricingEngine.currentSlot();
+        Map<Long, MenuDTO> menus = null;
+        for (MenuDTO menu : current.getMenus()) {
+            BigDecimal effectivePrice = pricingEngine.effectivePrice(menu.getId(), menu.getCategoryId(), menu.getPrice(), slot);
+            if (Objects.equals(effectivePrice, menu.getEffectivePrice())) {
+                continue;
+            }
+            if (menus == null) {
+                menus = new HashMap<>(current.menusById());
+            }
+            MenuDTO repriced = withRating(menu, current.getRating(menu.getId()));
+            repriced.setEffectivePrice(effectivePrice);
+            menus.put(menu.getId(), repriced);
+        }
+        if (menus != null || revision != current.getRevision() || slot != current.getPricingSlot()) {
+            swap(current, revision, slot, current.categoriesById(), menus != null ? menus : current.menusById(),
+                    current.ratings());
+        }
+    }
+
+    /**
+     * Bumps the shared revision for a write applied to the current snapshot, and returns the revision
+     * the updated snapshot matches. That is -1 when another node's write slipped in since the last
+     * sync, the seen revision then stays behind so the next sync reloads.
+     */
+    private long publishWrite() {
+        long revision = bumpRevision();
+        if (revision == seenRevision + 1) {
+            seenRevision = revision;
+            return revision;
+        }
+        return -1;
+    }
+
+    // returns the new revision, or -1 if it could not be bumped (the next bump or sync catches up)
+    private long bumpRevision() {
+        try {
+            Long revision = revisionTransaction.execute(status -> catalogRevisionRepository.increment() == 0
+                    ? null
+                    : catalogRevisionRepository.findRevision().orElse(null));
+            return revision != null ? revision : -1;
+        } catch (RuntimeException e) {
+            log.warn("Could not bump the catalog revision, other nodes see this write on a later change: {}",
+                    e.getMessage());
+            return -1;
+        }
+    }
+
+    private long readRevision() {
+        Optional<Long> revision = readOnlyTransaction.execute(status -> catalogRevisionRepository.findRevision());
+        if (revision.isPresent()) {
+            return revision.get();
+        }
+        try {
+            catalogRevisionRepository.save(new CatalogRevision(CatalogRevision.ID, 0L));
+        } catch (DataIntegrityViolationException e) {
+            // another node created the row first
+        }
+        return catalogRevisionRepository.findRevision().orElse(0L);
+    }
+
+    private void swap(CatalogSnapshot current,
+                      long revision,
+                      int pricingSlot,
+                      Map<Long, CategoryDTO> categories,
+                      Map<Long, MenuDTO> menus,
+                      Map<Long, RatingSummary> ratings) {
+        CatalogSnapshot next = new CatalogSnapshot(current.getVersion() + 1, revision, pricingSlot,
+                categories, menus, ratings);
+        snapshot = next;
+        eventPublisher.publishEvent(new CatalogChangedEvent(next.getVersion()));
+    }
+
+    private static CategoryDTO toCategoryDTO(Category category) {
+        CategoryDTO categoryDTO = new CategoryDTO();
+        categoryDTO.setId(category.getId());
+        categoryDTO.setName(category.getName());
+        categoryDTO.setDescription(category.getDescription());
+        return categoryDTO;
+    }
+
+    /**
+     * Returns a copy of the categories with menu count and price range recomputed for the given
+     * categories, the same aggregates {@link CategoryRepository#findCategorySummaries()} returns.
+     */
+    private static Map<Long, CategoryDTO> withMenuStats(Map<Long, CategoryDTO> categories,
+                                                        Map<Long, MenuDTO> menus,
+                                                        Long... categoryIds) {
+        Map<Long, CategoryDTO> updated = new HashMap<>(categories);
+        for (Long categoryId : categoryIds) {
+            CategoryDTO category = categoryId == null ? null : updated.get(categoryId);
+            if (category == null) {
+                continue;
+            }
+            long count = 0;
+            BigDecimal minPrice = null;
+            BigDecimal maxPrice = null;
+            for (MenuDTO menu : menus.values()) {
+                if (!categoryId.equals(menu.getCategoryId())) {
+                    continue;
+                }
+                count++;
+                BigDecimal price = menu.getPrice();
+                if (price != null) {
+                    minPrice = minPrice == null || price.compareTo(minPrice) < 0 ? price : minPrice;
+                    maxPrice = maxPrice == null || price.compareTo(maxPrice) > 0 ? price : maxPrice;
+                }
+            }
+            // snapshot DTOs are shared, never modify them in place
+            updated.put(categoryId, new CategoryDTO(category.getId(), category.getName(), category.getDescription(),
+                    count, minPrice, maxPrice));
+        }
+        return updated;
+    }
+
+    private MenuDTO toMenuDTO(Menu menu, RatingSummary rating, int slot) {
+        MenuDTO menuDTO = new MenuDTO();
+        menuDTO.setId(menu.getId());
+        menuDTO.setName(menu.getName());
+        menuDTO.setDescription(menu.getDescription());
+        menuDTO.setPrice(menu.getPrice());
+        menuDTO.setImageUrl(menu.getImageUrl());
+        menuDTO.setCategoryId(menu.getCategory() != null ? menu.getCategory().getId() : null);
+        menuDTO.setEffectivePrice(pricingEngine.effectivePrice(menu.getId(), menuDTO.getCategoryId(), menu.getPrice(), slot));
+        menuDTO.setAverageRating(rating.average());
+        menuDTO.setReviewCount(rating.count());
+        menuDTO.setStarHistogram(rating.stars());
+        return menuDTO;
+    }
+
+    private static MenuDTO withRating(MenuDTO menu, RatingSummary rating) {
+        MenuDTO menuDTO = new MenuDTO();
+        menuDTO.setId(menu.getId());
+        menuDTO.setName(menu.getName());
+        menuDTO.setDescription(menu.getDescription());
+        menuDTO.setPrice(menu.getPrice());
+        menuDTO.setImageUrl(menu.getImageUrl());
+        menuDTO.setCategoryId(menu.getCategoryId());
+        menuDTO.setEffectivePrice(menu.getEffectivePrice());
+        menuDTO.setAverageRating(rating.average());
+        menuDTO.setReviewCount(rating.count());
+        menuDTO.setStarHistogram(rating.stars());
+        return menuDTO;
+    }
+}
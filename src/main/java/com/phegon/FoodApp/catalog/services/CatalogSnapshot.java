@@ -0,0 +1,139 @@
+package com.phegon.FoodApp.catalog.services;
+
+import com.phegon.FoodApp.category.dtos.CategoryDTO;
+import com.phegon.FoodApp.menu.dtos.MenuDTO;
+import com.phegon.FoodApp.review.entity.MenuRatingSummary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, versioned view of the whole catalog: categories, menus and their rating summaries.
+ * A snapshot is never changed after construction, writers build a new one and swap it in, so
+ * readers need no locks. The DTOs it hands out are shared by every request and must not be modified.
+ * <p>
+ * The version counts this node's snapshots. The revision is the shared catalog revision the
+ * snapshot matches, the same on every node, or -1 while it holds local writes not yet matched to one.
+ */
+public final class CatalogSnapshot {
+
+    // stars holds the review counts per star, index 0 = 1 star
+    public record RatingSummary(long count, long sum, List<Long> stars) {
+
+        static final RatingSummary NONE = new RatingSummary(0, 0, List.of(0L, 0L, 0L, 0L, 0L));
+
+        static RatingSummary of(MenuRatingSummary summary) {
+            return new RatingSummary(summary.getReviewCount(), summary.getRatingSum(), List.of(
+                    summary.getStar1(), summary.getStar2(), summary.getStar3(), summary.getStar4(), summary.getStar5()));
+        }
+
+        public double average() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        RatingSummary plus(int rating) {
+            List<Long> updatedStars = new ArrayList<>(stars);
+            int index = MenuRatingSummary.starsFor(rating) - 1;
+            updatedStars.set(index, updatedStars.get(index) + 1);
+            return new RatingSummary(count + 1, sum + rating, List.copyOf(updatedStars));
+        }
+    }
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, -1, -1, Map.of(), Map.of(), Map.of());
+
+    private final long version;
+    private final long revision;
+    // pricing slot the effective prices were resolved for
+    private final int pricingSlot;
+    private final Map<Long, CategoryDTO> categoriesById;
+    private final Map<Long, MenuDTO> menusById;
+    private final Map<Long, RatingSummary> ratings;
+
+    // precomputed views, in the order the repositories used to return them
+    private final List<CategoryDTO> categories; // id ascending
+    private final List<MenuDTO> menus; // id descending
+    private final Map<Long, List<MenuDTO>> menusByCategory;
+
+    CatalogSnapshot(long version,
+                    long revision,
+                    int pricingSlot,
+                    Map<Long, CategoryDTO> categoriesById,
+                    Map<Long, MenuDTO> menusById,
+                    Map<Long, RatingSummary> ratings) {
+        this.version = version;
+        this.revision = revision;
+        this.pricingSlot = pricingSlot;
+        this.categoriesById = Map.copyOf(categoriesById);
+        this.menusById = Map.copyOf(menusById);
+        this.ratings = Map.copyOf(ratings);
+
+        this.categories = categoriesById.values().stream()
+                .sorted(Comparator.comparing(CategoryDTO::getId))
+                .toList();
+        this.menus = menusById.values().stream()
+                .sorted(Comparator.comparing(MenuDTO::getId).reversed())
+                .toList();
+
+        Map<Long, List<MenuDTO>> byCategory = new HashMap<>();
+        for (MenuDTO menu : menus) {
+            if (menu.getCategoryId() == null) {
+                continue;
+            }
+            byCategory.computeIfAbsent(menu.getCategoryId(), id -> new ArrayList<>()).add(menu);
+        }
+        byCategory.replaceAll((id, list) -> List.copyOf(list));
+        this.menusByCategory = Map.copyOf(byCategory);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public int getPricingSlot() {
+        return pricingSlot;
+    }
+
+    public List<CategoryDTO> getCategories() {
+        return categories;
+    }
+
+    public Optional<CategoryDTO> findCategory(Long id) {
+        return Optional.ofNullable(id == null ? null : categoriesById.get(id));
+    }
+
+    public List<MenuDTO> getMenus() {
+        return menus;
+    }
+
+    public List<MenuDTO> getMenusInCategory(Long categoryId) {
+        return menusByCategory.getOrDefault(categoryId, List.of());
+    }
+
+    public Optional<MenuDTO> findMenu(Long id) {
+        return Optional.ofNullable(id == null ? null : menusById.get(id));
+    }
+
+    public RatingSummary getRating(Long menuId) {
+        return ratings.getOrDefault(menuId, RatingSummary.NONE);
+    }
+
+    Map<Long, CategoryDTO> categoriesById() {
+        return categoriesById;
+    }
+
+    Map<Long, MenuDTO> menusById() {
+        return menusById;
+    }
+
+    Map<Long, RatingSummary> ratings() {
+        return ratings;
+    }
+}
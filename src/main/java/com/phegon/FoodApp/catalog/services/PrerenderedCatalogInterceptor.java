@@ -0,0 +1,140 @@
+package com.phegon.FoodApp.catalog.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Map;
+
+/**
+ * Answers the hot catalog GETs with the pre-rendered bytes, before the controller is invoked. It
+ * runs as a handler interceptor rather than a filter so security and CORS still apply. Anything it
+ * has no body for (searches, unknown categories, a catalog newer than the rendered one) falls
+ * through to the controller.
+ */
+@Component
+public class PrerenderedCatalogInterceptor implements HandlerInterceptor {
+
+    static final String MENUS_PATH = "/api/v1/menus";
+    static final String CATEGORIES_PATH = "/api/v1/categories/all";
+
+    private static final String GZIP = "gzip";
+
+    private final PrerenderedCatalogResponses prerenderedResponses;
+    private final CatalogService catalogService;
+    private final CatalogHttpCaching catalogHttpCaching;
+    private final Counter identityServed;
+    private final Counter gzipServed;
+    private final boolean legacyUnpaginated;
+
+    public PrerenderedCatalogInterceptor(PrerenderedCatalogResponses prerenderedResponses,
+                                         CatalogService catalogService,
+                                         CatalogHttpCaching catalogHttpCaching,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${menu.listing.legacy-unpaginated:true}") boolean legacyUnpaginated) {
+        this.prerenderedResponses = prerenderedResponses;
+        this.legacyUnpaginated = legacyUnpaginated;
+        this.catalogService = catalogService;
+        this.catalogHttpCaching = catalogHttpCaching;
+        this.identityServed = Counter.builder("foodapp.catalog.prerendered.served")
+                .description("Catalog responses written from pre-rendered bytes")
+                .tag("encoding", "identity")
+                .register(meterRegistry);
+        this.gzipServed = Counter.builder("foodapp.catalog.prerendered.served")
+                .description("Catalog responses written from pre-rendered bytes")
+                .tag("encoding", GZIP)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String key = keyFor(request, legacyUnpaginated);
+        if (key == null) {
+            return true;
+        }
+        CatalogSnapshot snapshot = catalogService.current();
+        PrerenderedCatalogResponses.Body body = prerenderedResponses.find(key, snapshot.getVersion());
+        if (body == null) {
+            return true;
+        }
+
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String eTag = gzip ? catalogHttpCaching.eTag(snapshot, GZIP) : catalogHttpCaching.eTag(snapshot);
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, catalogHttpCaching.cacheControlHeader());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            return false; // status 304 has been set
+        }
+
+        byte[] bytes = gzip ? body.gzip() : body.identity();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            gzipServed.increment();
+        } else {
+            identityServed.increment();
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+        return false;
+    }
+
+    private static String keyFor(HttpServletRequest request, boolean legacyUnpaginated) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Map<String, String[]> parameters = request.getParameterMap();
+
+        if (CATEGORIES_PATH.equals(path)) {
+            return parameters.isEmpty() ? PrerenderedCatalogResponses.ALL_CATEGORIES : null;
+        }
+        if (!MENUS_PATH.equals(path) || !legacyUnpaginated) {
+            return null; // without the legacy listing, menus are always served as pages
+        }
+        if (parameters.isEmpty()) {
+            return PrerenderedCatalogResponses.ALL_MENUS;
+        }
+        String[] categoryIds = parameters.get("categoryId");
+        if (parameters.size() != 1 || categoryIds == null || categoryIds.length != 1) {
+            return null;
+        }
+        try {
+            return PrerenderedCatalogResponses.menusInCategory(Long.parseLong(categoryIds[0]));
+        } catch (NumberFormatException e) {
+            return null; // let the controller report the bad parameter
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!GZIP.equalsIgnoreCase(name) && !"*".equals(name)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+                if (parameter.startsWith("q=") && parameter.matches("q=0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
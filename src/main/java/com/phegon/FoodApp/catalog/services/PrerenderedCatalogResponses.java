@@ -0,0 +1,107 @@
+package com.phegon.FoodApp.catalog.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phegon.FoodApp.catalog.events.CatalogChangedEvent;
+import com.phegon.FoodApp.category.dtos.CategoryDTO;
+import com.phegon.FoodApp.category.services.CategoryService;
+import com.phegon.FoodApp.menu.services.MenuService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ready-to-write JSON bodies, identity and gzip, for the hottest catalog responses: all menus,
+ * menus per category and all categories. They are rendered through the regular services in the
+ * background after each catalog change, so a request only copies bytes to the socket.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrerenderedCatalogResponses {
+
+    public static final String ALL_MENUS = "menus";
+    public static final String ALL_CATEGORIES = "categories";
+
+    public record Body(byte[] identity, byte[] gzip) {
+    }
+
+    private record Rendered(long version, Map<String, Body> bodies) {
+    }
+
+    private final CatalogService catalogService;
+    private final MenuService menuService;
+    private final CategoryService categoryService;
+    private final ObjectMapper objectMapper;
+
+    private volatile Rendered rendered = new Rendered(0, Map.of());
+
+    public static String menusInCategory(Long categoryId) {
+        return "menus:category:" + categoryId;
+    }
+
+    /**
+     * Returns the body for the key, or null when there is none for exactly the given catalog
+     * version (not rendered yet, or rendered from an older catalog).
+     */
+    public Body find(String key, long version) {
+        Rendered current = rendered;
+        return current.version() == version ? current.bodies().get(key) : null;
+    }
+
+    @Async
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        regenerate();
+    }
+
+    synchronized void regenerate() {
+        CatalogSnapshot snapshot = catalogService.current();
+        if (rendered.version() >= snapshot.getVersion()) {
+            return; // a burst of changes is rendered once, by whichever event got here first
+        }
+
+        long start = System.nanoTime();
+        Map<String, Body> bodies = new HashMap<>();
+        bodies.put(ALL_MENUS, render(menuService.getMenus(null, null)));
+        for (CategoryDTO category : snapshot.getCategories()) {
+            bodies.put(menusInCategory(category.getId()), render(menuService.getMenus(category.getId(), null)));
+        }
+        bodies.put(ALL_CATEGORIES, render(categoryService.getAllCategories()));
+
+        rendered = new Rendered(snapshot.getVersion(), Map.copyOf(bodies));
+        log.info("Pre-rendered {} catalog responses for v{} in {} ms",
+                bodies.size(), snapshot.getVersion(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Body render(Object response) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(response);
+            return new Body(identity, gzip(identity));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        // compressed once per catalog change, so spend the CPU on the best ratio
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,5 +1,6 @@
 package com.phegon.FoodApp.category.controller;
 
+import com.phegon.FoodApp.catalog.services.CatalogHttpCaching;
 import com.phegon.FoodApp.category.dtos.CategoryDTO;
 import com.phegon.FoodApp.category.services.CategoryService;
 import com.phegon.FoodApp.response.Response;
@@ -8,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,6 +19,7 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogHttpCaching catalogHttpCaching;
 
     @PostMapping
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -40,16 +43,17 @@ public class CategoryController {
 
     @GetMapping("/{id}")
     public ResponseEntity<Response<CategoryDTO>> getCategoryById(
-            @PathVariable Long id
+            @PathVariable Long id,
+            WebRequest webRequest
     ) {
-        return ResponseEntity.ok(
-                categoryService.getCategoryById(id));
+        return catalogHttpCaching.respond(webRequest,
+                () -> categoryService.getCategoryById(id));
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Response<List<CategoryDTO>>> getAllCategories() {
-        return ResponseEntity.ok(
-                categoryService.getAllCategories()
+    public ResponseEntity<Response<List<CategoryDTO>>> getAllCategories(WebRequest webRequest) {
+        return catalogHttpCaching.respond(webRequest,
+                () -> categoryService.getAllCategories()
         );
     }
 
@@ -4,9 +4,15 @@ package com.phegon.FoodApp.category.dtos;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
 
 @Data
+@AllArgsConstructor
+@NoArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class CategoryDTO {
@@ -19,4 +25,9 @@ public class CategoryDTO {
     // Additional fields can be added as needed
     private String description;
 
+    // read-only aggregates over the category's menus, ignored on create/update
+    private Long menuCount;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
 }
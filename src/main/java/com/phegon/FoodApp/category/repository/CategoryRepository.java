@@ -1,7 +1,19 @@
 package com.phegon.FoodApp.category.repository;
 
+import com.phegon.FoodApp.category.dtos.CategoryDTO;
 import com.phegon.FoodApp.category.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    // every category with its menu count and price range, one grouped statement whatever the number of categories
+    @Query("SELECT new com.phegon.FoodApp.category.dtos.CategoryDTO(" +
+            "c.id, c.name, c.description, COUNT(m.id), MIN(m.price), MAX(m.price)) " +
+            "FROM Category c LEFT JOIN c.menus m " +
+            "GROUP BY c.id, c.name, c.description " +
+            "ORDER BY c.id")
+    List<CategoryDTO> findCategorySummaries();
 }
@@ -1,9 +1,13 @@
 package com.phegon.FoodApp.category.services;
 
+import com.phegon.FoodApp.catalog.services.CatalogService;
+import com.phegon.FoodApp.catalog.services.CatalogSnapshot;
 import com.phegon.FoodApp.category.dtos.CategoryDTO;
 import com.phegon.FoodApp.category.entity.Category;
 import com.phegon.FoodApp.category.repository.CategoryRepository;
 import com.phegon.FoodApp.exceptions.NotFoundException;
+import com.phegon.FoodApp.menu.services.MenuSearchIndex;
+import com.phegon.FoodApp.menu.services.MenuSuggestionIndex;
 import com.phegon.FoodApp.response.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,13 +24,18 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ModelMapper modelMapper;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MenuSuggestionIndex menuSuggestionIndex;
+    private final CatalogService catalogService;
 
     @Override
     public Response<CategoryDTO> addCategory(CategoryDTO categoryDTO) {
         log.info("Adding new category: {}", categoryDTO.getName());
 
         Category category = modelMapper.map(categoryDTO, Category.class);
-        categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        menuSuggestionIndex.putCategory(savedCategory);
+        catalogService.putCategory(savedCategory);
 
         return Response.<CategoryDTO>builder()
                 .statusCode(HttpStatus.OK.value())
@@ -48,10 +57,12 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.save(category);
+        menuSuggestionIndex.putCategory(category);
+        catalogService.putCategory(category);
         return Response.<CategoryDTO>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Category updated successfully")
-                .data(modelMapper.map(category, CategoryDTO.class))
+                .data(catalogService.current().findCategory(category.getId()).orElse(null))
                 .build();
     }
 
@@ -59,14 +70,15 @@ public class CategoryServiceImpl implements CategoryService {
     public Response<CategoryDTO> getCategoryById(Long id) {
         log.info("Fetching category by ID: {}", id);
 
-        Category category = categoryRepository.findById(id)
+        CatalogSnapshot catalog = catalogService.current();
+        CategoryDTO categoryDTO = catalog.findCategory(id)
                 .orElseThrow(() -> new NotFoundException("Category not found"));
 
-        CategoryDTO categoryDTO = modelMapper.map(category, CategoryDTO.class);
         return Response.<CategoryDTO>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Category fetched successfully")
                 .data(categoryDTO)
+                .meta(catalogService.versionMeta(catalog))
                 .build();
     }
 
@@ -78,6 +90,9 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new NotFoundException("Category not found"));
 
         categoryRepository.delete(category);
+        menuSearchIndex.removeCategory(id); // its menus were deleted with it
+        menuSuggestionIndex.removeCategory(id);
+        catalogService.removeCategory(id);
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Category deleted successfully")
@@ -87,15 +102,13 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public Response<List<CategoryDTO>> getAllCategories() {
         log.info("Fetching all categories");
-        List<Category> categories = categoryRepository.findAll();
+        CatalogSnapshot catalog = catalogService.current();
 
-        List<CategoryDTO> categoryDTOs = categories.stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
-                .toList();
         return Response.<List<CategoryDTO>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Categories fetched successfully")
-                .data(categoryDTOs)
+                .data(catalog.getCategories())
+                .meta(catalogService.versionMeta(catalog))
                 .build();
     }
 }
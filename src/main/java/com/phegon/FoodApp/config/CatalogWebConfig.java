@@ -0,0 +1,21 @@
+package com.phegon.FoodApp.config;
+
+import com.phegon.FoodApp.catalog.services.PrerenderedCatalogInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class CatalogWebConfig implements WebMvcConfigurer {
+
+    private final PrerenderedCatalogInterceptor prerenderedCatalogInterceptor;
+
+    // serves the hot catalog lists from pre-rendered bytes, after CORS has been applied
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(prerenderedCatalogInterceptor)
+                .addPathPatterns("/api/v1/menus", "/api/v1/categories/all");
+    }
+}
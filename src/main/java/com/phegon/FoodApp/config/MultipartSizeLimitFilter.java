@@ -0,0 +1,68 @@
+package com.phegon.FoodApp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phegon.FoodApp.response.Response;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * spring.servlet.multipart.max-request-size is sized for the bulk menu import. Every other
+ * multipart request is held to the smaller default limit here, by its Content-Length, before the
+ * body is parsed.
+ */
+@Component
+public class MultipartSizeLimitFilter extends OncePerRequestFilter {
+
+    private static final String IMPORT_PATH = "/api/v1/menus/import";
+
+    private final ObjectMapper objectMapper;
+    private final long maxRequestSize;
+
+    public MultipartSizeLimitFilter(ObjectMapper objectMapper,
+                                    @Value("${multipart.default-max-request-size:25MB}") DataSize maxRequestSize) {
+        this.objectMapper = objectMapper;
+        this.maxRequestSize = maxRequestSize.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType == null
+                || !contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)
+                || (HttpMethod.POST.matches(request.getMethod()) && IMPORT_PATH.equals(request.getRequestURI()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long length = request.getContentLengthLong();
+        if (length >= 0 && length <= maxRequestSize) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // a chunked body could grow up to the import limit, so its length must be declared
+        HttpStatus status = length < 0 ? HttpStatus.LENGTH_REQUIRED : HttpStatus.PAYLOAD_TOO_LARGE;
+        Response<?> errorResponse = Response.builder()
+                .statusCode(status.value())
+                .message(length < 0
+                        ? "Multipart requests must declare a Content-Length"
+                        : "Request exceeds the maximum size of " + DataSize.ofBytes(maxRequestSize).toMegabytes() + "MB")
+                .build();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(status.value());
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+}
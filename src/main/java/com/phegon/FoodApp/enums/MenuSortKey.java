@@ -0,0 +1,8 @@
+package com.phegon.FoodApp.enums;
+
+// orderings supported by the paginated menu listing, every one ends with the id as a tie-breaker
+public enum MenuSortKey {
+    NEWEST,   // id descending
+    PRICE,    // price ascending
+    NAME,     // name ascending
+}
@@ -1,16 +1,23 @@
 package com.phegon.FoodApp.menu.controller;
 
 
+import com.phegon.FoodApp.catalog.services.CatalogHttpCaching;
 import com.phegon.FoodApp.menu.dtos.MenuDTO;
+import com.phegon.FoodApp.menu.dtos.MenuImportResultDTO;
+import com.phegon.FoodApp.menu.dtos.PriceAdjustmentDTO;
+import com.phegon.FoodApp.menu.dtos.SuggestionDTO;
+import com.phegon.FoodApp.menu.services.MenuImportService;
 import com.phegon.FoodApp.menu.services.MenuService;
 import com.phegon.FoodApp.response.Response;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -20,6 +27,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MenuController {
     private final MenuService   menuService;
+    private final CatalogHttpCaching catalogHttpCaching;
+    private final MenuImportService menuImportService;
+
+    // old clients expect the whole list when they send no limit; switch off once they are gone
+    @Value("${menu.listing.legacy-unpaginated:true}")
+    private boolean legacyUnpaginated;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -45,12 +58,35 @@ public class MenuController {
         );
     }
 
+    @PutMapping("/prices")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response<Integer>> adjustPrices(
+            @RequestBody @Valid PriceAdjustmentDTO priceAdjustmentDTO
+    ) {
+        return ResponseEntity.ok(
+                menuService.adjustPrices(priceAdjustmentDTO)
+        );
+    }
+
+    // bulk onboarding: a CSV or JSON-lines file plus the images its rows reference by file name
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response<MenuImportResultDTO>> importMenus(
+            @RequestPart("file") MultipartFile file,
+            @RequestPart(value = "images", required = false) List<MultipartFile> images
+    ) {
+        return ResponseEntity.ok(
+                menuImportService.importMenus(file, images)
+        );
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Response<MenuDTO>> getMenuById(
-            @PathVariable Long id
+            @PathVariable Long id,
+            WebRequest webRequest
     ) {
-        return ResponseEntity.ok(
-                menuService.getMenuById(id)
+        return catalogHttpCaching.respond(webRequest,
+                () -> menuService.getMenuById(id)
         );
     }
 
@@ -65,12 +101,34 @@ public class MenuController {
     }
 
     @GetMapping
-    public ResponseEntity<Response<List<MenuDTO>>> getMenus(
+    public ResponseEntity<? extends Response<?>> getMenus(
             @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest
+    ) {
+        // searches are ranked by relevance and stay on the list endpoint
+        boolean paginated = (search == null || search.isBlank())
+                && (limit != null || cursor != null || !legacyUnpaginated);
+        if (paginated) {
+            return catalogHttpCaching.respond(webRequest,
+                    () -> menuService.getMenuPage(categoryId, sort, cursor, limit)
+            );
+        }
+        return catalogHttpCaching.respond(webRequest,
+                () -> menuService.getMenus(categoryId, search)
+        );
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Response<List<SuggestionDTO>>> suggestMenus(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit
     ) {
         return ResponseEntity.ok(
-                menuService.getMenus(categoryId, search)
+                menuService.suggestMenus(prefix, limit)
         );
     }
 
@@ -27,6 +27,10 @@ public class MenuDTO {
     @NotNull(message = "Price is required")
     @Positive(message = "Price must be a positive value")
     private BigDecimal price;
+
+    // price after the pricing rules active right now, equal to price when none applies
+    private BigDecimal effectivePrice;
+
     private String imageUrl;
 
     @NotNull(message = "Category ID is required")
@@ -36,4 +40,9 @@ public class MenuDTO {
 
     private List<ReviewDTO> reviews;
 
+    // denormalized from the reviews, kept in the catalog snapshot
+    private Double averageRating;
+    private Long reviewCount;
+    private List<Long> starHistogram; // review counts for 1 to 5 stars
+
 }
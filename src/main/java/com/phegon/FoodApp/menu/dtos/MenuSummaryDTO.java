@@ -0,0 +1,28 @@
+package com.phegon.FoodApp.menu.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// lean row of the paginated menu listing, read straight from a query without loading entities
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MenuSummaryDTO {
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private String imageUrl;
+    private Long categoryId;
+    private Double averageRating;
+    private BigDecimal effectivePrice; // resolved in memory after the query
+
+    public MenuSummaryDTO(Long id, String name, BigDecimal price, String imageUrl, Long categoryId, Double averageRating) {
+        this(id, name, price, imageUrl, categoryId, averageRating, null);
+    }
+}
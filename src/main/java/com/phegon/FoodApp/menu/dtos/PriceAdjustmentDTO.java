@@ -0,0 +1,30 @@
+package com.phegon.FoodApp.menu.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// targets either menuIds or a categoryId, and either sets a fixed price or applies a percentage
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PriceAdjustmentDTO {
+
+    // bound to one IN list, keep it well below the driver's bind parameter limit
+    @Size(max = 1000, message = "At most 1000 menu IDs can be adjusted at once")
+    private List<Long> menuIds;
+    private Long categoryId;
+
+    @Positive(message = "Price must be a positive value")
+    private BigDecimal price;
+
+    // +10 raises prices by 10%, -15 lowers them by 15%
+    @DecimalMin(value = "-99.99", message = "Percentage must be greater than -100")
+    private BigDecimal percentage;
+}
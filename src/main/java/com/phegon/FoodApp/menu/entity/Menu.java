@@ -15,7 +15,12 @@ import java.util.List;
 
 @Entity
 @Data
-@Table(name = "menus")
+@Table(name = "menus", indexes = {
+        // keyset pagination of the menu listing, see MenuSummaryQueries
+        @Index(name = "idx_menus_category_id_id", columnList = "category_id, id"),
+        @Index(name = "idx_menus_price_id", columnList = "price, id"),
+        @Index(name = "idx_menus_name_id", columnList = "name, id")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -3,6 +3,38 @@ package com.phegon.FoodApp.menu.repository;
 import com.phegon.FoodApp.menu.entity.Menu;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface MenuRepository extends JpaRepository<Menu, Long>, JpaSpecificationExecutor<Menu> {
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface MenuRepository extends JpaRepository<Menu, Long>, JpaSpecificationExecutor<Menu>, MenuSummaryQueries {
+
+    // the category is fetched in the same statement instead of one select per referenced category
+    @Query("SELECT m FROM Menu m JOIN FETCH m.category")
+    List<Menu> findAllWithCategory();
+
+    // [id, categoryId, name, description] of every menu, enough to build the search index
+    @Query("SELECT m.id, m.category.id, m.name, m.description FROM Menu m")
+    List<Object[]> findSearchDocuments();
+
+    // new price = round(price * factor + amount, 2): factor 0 sets a fixed amount, amount 0 scales
+    // prices never drop below 0.01, a steep cut of a cheap item would otherwise round to zero
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Menu m SET m.price = GREATEST(ROUND(m.price * :factor + :amount, 2), 0.01) WHERE m.id IN :ids")
+    int adjustPricesByIds(@Param("ids") Collection<Long> ids,
+                          @Param("factor") BigDecimal factor,
+                          @Param("amount") BigDecimal amount);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Menu m SET m.price = GREATEST(ROUND(m.price * :factor + :amount, 2), 0.01) WHERE m.category.id = :categoryId")
+    int adjustPricesByCategory(@Param("categoryId") Long categoryId,
+                               @Param("factor") BigDecimal factor,
+                               @Param("amount") BigDecimal amount);
 }
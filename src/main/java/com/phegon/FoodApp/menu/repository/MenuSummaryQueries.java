@@ -0,0 +1,16 @@
+package com.phegon.FoodApp.menu.repository;
+
+import com.phegon.FoodApp.enums.MenuSortKey;
+import com.phegon.FoodApp.menu.dtos.MenuSummaryDTO;
+
+import java.util.List;
+
+public interface MenuSummaryQueries {
+
+    /**
+     * One keyset page of menu summaries. When {@code afterId} is set, only rows strictly after
+     * {@code (afterValue, afterId)} in the given order are returned.
+     */
+    List<MenuSummaryDTO> findMenuSummaries(Long categoryId, MenuSortKey sortKey,
+                                           Object afterValue, Long afterId, int limit);
+}
@@ -0,0 +1,53 @@
+package com.phegon.FoodApp.menu.repository;
+
+import com.phegon.FoodApp.enums.MenuSortKey;
+import com.phegon.FoodApp.menu.dtos.MenuSummaryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+// the JPQL differs per sort key and per first/next page, so it is assembled here rather than in @Query
+public class MenuSummaryQueriesImpl implements MenuSummaryQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<MenuSummaryDTO> findMenuSummaries(Long categoryId, MenuSortKey sortKey,
+                                                  Object afterValue, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.phegon.FoodApp.menu.dtos.MenuSummaryDTO(" +
+                        "m.id, m.name, m.price, m.imageUrl, m.category.id, " +
+                        "CAST(s.ratingSum AS Double) / s.reviewCount) " +
+                        "FROM Menu m LEFT JOIN MenuRatingSummary s ON s.menuId = m.id WHERE 1 = 1");
+        if (categoryId != null) {
+            jpql.append(" AND m.category.id = :categoryId");
+        }
+        if (afterId != null) {
+            jpql.append(switch (sortKey) {
+                case NEWEST -> " AND m.id < :afterId";
+                case PRICE -> " AND (m.price > :afterValue OR (m.price = :afterValue AND m.id > :afterId))";
+                case NAME -> " AND (m.name > :afterValue OR (m.name = :afterValue AND m.id > :afterId))";
+            });
+        }
+        jpql.append(switch (sortKey) {
+            case NEWEST -> " ORDER BY m.id DESC";
+            case PRICE -> " ORDER BY m.price ASC, m.id ASC";
+            case NAME -> " ORDER BY m.name ASC, m.id ASC";
+        });
+
+        TypedQuery<MenuSummaryDTO> query = entityManager.createQuery(jpql.toString(), MenuSummaryDTO.class);
+        if (categoryId != null) {
+            query.setParameter("categoryId", categoryId);
+        }
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+            if (sortKey != MenuSortKey.NEWEST) {
+                query.setParameter("afterValue", afterValue);
+            }
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,11 @@
+package com.phegon.FoodApp.menu.services;
+
+import com.phegon.FoodApp.menu.dtos.MenuImportResultDTO;
+import com.phegon.FoodApp.response.Response;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+public interface MenuImportService {
+    Response<MenuImportResultDTO> importMenus(MultipartFile file, List<MultipartFile> images);
+}
@@ -0,0 +1,466 @@
+package com.phegon.FoodApp.menu.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phegon.FoodApp.aws.AWSS3Service;
+import com.phegon.FoodApp.catalog.services.CatalogService;
+import com.phegon.FoodApp.catalog.services.CatalogSnapshot;
+import com.phegon.FoodApp.category.dtos.CategoryDTO;
+import com.phegon.FoodApp.exceptions.BadRequestException;
+import com.phegon.FoodApp.menu.dtos.MenuImportResultDTO;
+import com.phegon.FoodApp.response.Response;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk menu import from CSV or JSON lines. The file is read record by record, rows are validated
+ * against the categories of the catalog snapshot, referenced images (multipart parts matched by
+ * file name) are uploaded in parallel, and rows are inserted with JDBC batches, one transaction per
+ * chunk. The catalog and search indexes are refreshed once, at the end.
+ */
+@Service
+@Slf4j
+public class MenuImportServiceImpl implements MenuImportService {
+
+    private static final String INSERT_MENU_SQL =
+            "INSERT INTO menus (name, description, price, image_url, category_id) VALUES (?, ?, ?, ?, ?)";
+    private static final int MAX_TEXT_LENGTH = 255; // varchar columns of the menus table
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private record RawRow(int line, Map<String, String> fields, String error) {
+    }
+
+    private record ImportRow(int line, String name, String description, BigDecimal price,
+                             Long categoryId, MultipartFile image) {
+    }
+
+    private record PreparedRow(ImportRow row, String imageUrl) {
+    }
+
+    private record ImageUpload(String key, CompletableFuture<String> url) {
+    }
+
+    private final CatalogService catalogService;
+    private final AWSS3Service awsS3Service;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final ExecutorService uploadExecutor;
+
+    public MenuImportServiceImpl(CatalogService catalogService,
+                                 AWSS3Service awsS3Service,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${menu.import.chunk-size:500}") int chunkSize,
+                                 @Value("${menu.import.upload-parallelism:8}") int uploadParallelism) {
+        this.catalogService = catalogService;
+        this.awsS3Service = awsS3Service;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.uploadExecutor = Executors.newFixedThreadPool(uploadParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "menu-import-upload-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        uploadExecutor.shutdownNow();
+    }
+
+    @Override
+    public Response<MenuImportResultDTO> importMenus(MultipartFile file, List<MultipartFile> images) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("Import file is required");
+        }
+        boolean csv = isCsv(file);
+        log.info("Importing menus from {} ({} images attached)", file.getOriginalFilename(), images == null ? 0 : images.size());
+
+        Map<String, MultipartFile> imagesByName = new HashMap<>();
+        if (images != null) {
+            images.forEach(image -> imagesByName.put(image.getOriginalFilename(), image));
+        }
+
+        CatalogSnapshot catalog = catalogService.current();
+        Map<String, Long> categoryIdsByName = new HashMap<>();
+        for (CategoryDTO category : catalog.getCategories()) {
+            categoryIdsByName.put(category.getName().toLowerCase(Locale.ROOT), category.getId());
+        }
+
+        MenuImportResultDTO result = new MenuImportResultDTO();
+        // each distinct image is uploaded once, even when several rows reference it
+        Map<String, ImageUpload> uploads = new ConcurrentHashMap<>();
+        Set<String> savedImageUrls = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+                skipByteOrderMark(reader);
+                Iterator<RawRow> rows = csv ? csvRows(reader) : jsonRows(reader);
+                while (rows.hasNext()) {
+                    RawRow raw = rows.next();
+                    result.setTotalRows(result.getTotalRows() + 1);
+                    try {
+                        chunk.add(validate(raw, catalog, categoryIdsByName, imagesByName));
+                    } catch (IllegalArgumentException e) {
+                        reportError(result, raw.line(), e.getMessage());
+                        continue;
+                    }
+                    if (chunk.size() >= chunkSize) {
+                        flush(chunk, uploads, savedImageUrls, result);
+                        chunk.clear();
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                // the input is unreadable from here on, keep what was read so far
+                reportError(result, result.getTotalRows() + 1, "Import stopped, unreadable input: " + e.getMessage());
+            }
+            flush(chunk, uploads, savedImageUrls, result);
+        } finally {
+            discardUnsavedImages(uploads, savedImageUrls);
+        }
+
+        if (result.getImported() > 0) {
+            // also rebuilds the search indexes, before the new catalog version is served
+            catalogService.rebuild();
+        }
+        log.info("Menu import finished: {} rows, {} imported, {} failed",
+                result.getTotalRows(), result.getImported(), result.getFailed());
+
+        return Response.<MenuImportResultDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Menu import finished")
+                .data(result)
+                .build();
+    }
+
+    private void flush(List<ImportRow> chunk,
+                       Map<String, ImageUpload> uploads,
+                       Set<String> savedImageUrls,
+                       MenuImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // start every upload of the chunk before waiting on any of them
+        List<CompletableFuture<String>> imageUrls = chunk.stream()
+                .map(row -> row.image() == null
+                        ? CompletableFuture.<String>completedFuture(null)
+                        : uploads.computeIfAbsent(row.image().getOriginalFilename(), name -> upload(row.image())).url())
+                .toList();
+
+        List<PreparedRow> prepared = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                prepared.add(new PreparedRow(chunk.get(i), imageUrls.get(i).join()));
+            } catch (CompletionException e) {
+                reportError(result, chunk.get(i).line(), "Image upload failed: " + e.getCause().getMessage());
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(prepared));
+            result.setImported(result.getImported() + prepared.size());
+            prepared.forEach(row -> savedImageUrls.add(row.imageUrl()));
+        } catch (DataAccessException chunkFailure) {
+            // find the rows the database rejected, each in its own transaction
+            log.warn("Menu import chunk failed, retrying its {} rows one by one: {}",
+                    prepared.size(), NestedExceptionUtils.getMostSpecificCause(chunkFailure).getMessage());
+            for (PreparedRow row : prepared) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row)));
+                    result.setImported(result.getImported() + 1);
+                    savedImageUrls.add(row.imageUrl());
+                } catch (DataAccessException rowFailure) {
+                    reportError(result, row.row().line(),
+                            "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<PreparedRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT_MENU_SQL, rows, chunkSize, (statement, prepared) -> {
+            ImportRow row = prepared.row();
+            statement.setString(1, row.name());
+            statement.setString(2, row.description());
+            statement.setBigDecimal(3, row.price());
+            statement.setString(4, prepared.imageUrl());
+            statement.setLong(5, row.categoryId());
+        });
+    }
+
+    private ImageUpload upload(MultipartFile image) {
+        String key = "menus/" + UUID.randomUUID() + "_" + image.getOriginalFilename();
+        return new ImageUpload(key, CompletableFuture.supplyAsync(
+                () -> awsS3Service.uploadFile(key, image).toString(), uploadExecutor));
+    }
+
+    // images none of whose rows were saved are referenced by no menu, queue them for deletion
+    private void discardUnsavedImages(Map<String, ImageUpload> uploads, Set<String> savedImageUrls) {
+        int discarded = 0;
+        for (ImageUpload upload : uploads.values()) {
+            String url;
+            try {
+                url = upload.url().join();
+            } catch (CompletionException e) {
+                url = null; // a failed upload may still have stored the object
+            }
+            if (url == null || !savedImageUrls.contains(url)) {
+                awsS3Service.deleteFileLater(upload.key());
+                discarded++;
+            }
+        }
+        if (discarded > 0) {
+            log.info("Queued {} images of rejected import rows for deletion", discarded);
+        }
+    }
+
+    // spreadsheet exports often start with a UTF-8 byte order mark, which would end up in the first column name
+    private static void skipByteOrderMark(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    private ImportRow validate(RawRow raw,
+                               CatalogSnapshot catalog,
+                               Map<String, Long> categoryIdsByName,
+                               Map<String, MultipartFile> imagesByName) {
+        if (raw.error() != null) {
+            throw new IllegalArgumentException(raw.error());
+        }
+        Map<String, String> fields = raw.fields();
+
+        String name = fields.get("name");
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        String description = fields.get("description");
+        if (name.length() > MAX_TEXT_LENGTH || (description != null && description.length() > MAX_TEXT_LENGTH)) {
+            throw new IllegalArgumentException("Name and description are limited to " + MAX_TEXT_LENGTH + " characters");
+        }
+
+        BigDecimal price;
+        try {
+            price = new BigDecimal(fields.getOrDefault("price", "").trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Price is required and must be a number");
+        }
+        if (price.signum() <= 0) {
+            throw new IllegalArgumentException("Price must be a positive value");
+        }
+
+        Long categoryId;
+        String categoryIdValue = fields.get("categoryid");
+        if (categoryIdValue != null && !categoryIdValue.isBlank()) {
+            try {
+                categoryId = Long.parseLong(categoryIdValue.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid category ID: " + categoryIdValue);
+            }
+            if (catalog.findCategory(categoryId).isEmpty()) {
+                throw new IllegalArgumentException("Category not found: " + categoryId);
+            }
+        } else {
+            String categoryName = fields.getOrDefault("category", "").trim();
+            categoryId = categoryIdsByName.get(categoryName.toLowerCase(Locale.ROOT));
+            if (categoryId == null) {
+                throw new IllegalArgumentException("Category not found: " + categoryName);
+            }
+        }
+
+        MultipartFile image = null;
+        String imageName = fields.get("image");
+        if (imageName != null && !imageName.isBlank()) {
+            image = imagesByName.get(imageName.trim());
+            if (image == null || image.isEmpty()) {
+                throw new IllegalArgumentException("Image not attached: " + imageName);
+            }
+        }
+
+        return new ImportRow(raw.line(), name.trim(), description, price, categoryId, image);
+    }
+
+    private static void reportError(MenuImportResultDTO result, int line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new MenuImportResultDTO.RowError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    // "Category ID", "category_id" and "categoryId" all name the same column
+    private static String columnKey(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[\\s_-]", "");
+    }
+
+    private static boolean isCsv(MultipartFile file) {
+        String name = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return true;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+            return false;
+        }
+        if ("text/csv".equalsIgnoreCase(file.getContentType())) {
+            return true;
+        }
+        throw new BadRequestException("Import file must be CSV or JSON lines (.csv, .jsonl)");
+    }
+
+    private static Iterator<RawRow> csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            return List.<RawRow>of().iterator();
+        }
+        List<String> columns = header.stream().map(MenuImportServiceImpl::columnKey).toList();
+
+        return new Iterator<>() {
+            private RawRow next;
+            private boolean done;
+
+            private RawRow advance() {
+                try {
+                    List<String> record;
+                    do {
+                        record = records.next();
+                    } while (record != null && record.stream().allMatch(String::isBlank));
+                    if (record == null) {
+                        return null;
+                    }
+                    if (record.size() != columns.size()) {
+                        return new RawRow(records.recordLine(), Map.of(),
+                                "Expected " + columns.size() + " columns but found " + record.size());
+                    }
+                    Map<String, String> fields = new HashMap<>();
+                    for (int i = 0; i < columns.size(); i++) {
+                        fields.put(columns.get(i), record.get(i));
+                    }
+                    return new RawRow(records.recordLine(), fields, null);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && !done) {
+                    next = advance();
+                    done = next == null;
+                }
+                return next != null;
+            }
+
+            @Override
+            public RawRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                RawRow current = next;
+                next = null;
+                return current;
+            }
+        };
+    }
+
+    private Iterator<RawRow> jsonRows(BufferedReader reader) {
+        return new Iterator<>() {
+            private int line;
+            private RawRow next;
+            private boolean done;
+
+            private RawRow advance() {
+                try {
+                    String text;
+                    do {
+                        text = reader.readLine();
+                        line++;
+                    } while (text != null && text.isBlank());
+                    if (text == null) {
+                        return null;
+                    }
+                    JsonNode node;
+                    try {
+                        node = objectMapper.readTree(text);
+                    } catch (IOException e) {
+                        return new RawRow(line, Map.of(), "Invalid JSON");
+                    }
+                    if (!node.isObject()) {
+                        return new RawRow(line, Map.of(), "Expected a JSON object");
+                    }
+                    Map<String, String> fields = new HashMap<>();
+                    node.fields().forEachRemaining(field -> {
+                        if (!field.getValue().isNull()) {
+                            fields.put(columnKey(field.getKey()), field.getValue().asText());
+                        }
+                    });
+                    return new RawRow(line, fields, null);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && !done) {
+                    next = advance();
+                    done = next == null;
+                }
+                return next != null;
+            }
+
+            @Override
+            public RawRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                RawRow current = next;
+                next = null;
+                return current;
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.phegon.FoodApp.menu.services;
+
+import com.phegon.FoodApp.enums.MenuSortKey;
+import com.phegon.FoodApp.exceptions.BadRequestException;
+import com.phegon.FoodApp.menu.dtos.MenuSummaryDTO;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor of the menu listing: the sort key plus the (sort value, id) of the last row
+ * of the previous page, base64url encoded so clients pass it back untouched.
+ */
+record MenuPageCursor(MenuSortKey sortKey, String value, long id) {
+
+    static MenuPageCursor after(MenuSortKey sortKey, MenuSummaryDTO last) {
+        String value = switch (sortKey) {
+            case NEWEST -> "";
+            case PRICE -> last.getPrice().toPlainString();
+            case NAME -> last.getName();
+        };
+        return new MenuPageCursor(sortKey, value, last.getId());
+    }
+
+    static MenuPageCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // the value goes last, names may contain the separator
+            String[] parts = decoded.split(":", 3);
+            return new MenuPageCursor(MenuSortKey.valueOf(parts[0]), parts[2], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = sortKey.name() + ":" + id + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Object typedValue() {
+        try {
+            return switch (sortKey) {
+                case NEWEST -> null;
+                case PRICE -> new BigDecimal(value);
+                case NAME -> value;
+            };
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.phegon.FoodApp.menu.services;
+
+import com.phegon.FoodApp.catalog.events.CatalogReloadEvent;
+import com.phegon.FoodApp.menu.entity.Menu;
+import com.phegon.FoodApp.menu.repository.MenuRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over menu names and descriptions, replacing the LIKE '%term%' scans.
+ * Every query term must match (exactly, or as a prefix of an indexed term), and results are ranked
+ * with BM25F where name matches weigh more than description matches. The last query word is still
+ * being typed, so it also matches as a prefix of the unstemmed words ("frie" finds "fries").
+ * <p>
+ * Local writes update the index directly, writes of other nodes arrive through the full catalog
+ * reload. Writers are serialized on this object, so a write made during a rebuild is applied after it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MenuSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+
+    private record Document(long id, Long categoryId,
+                            Map<String, Integer> nameTerms, int nameLength,
+                            Map<String, Integer> descriptionTerms, int descriptionLength,
+                            Set<String> words) {
+
+        Set<String> terms() {
+            Set<String> terms = new HashSet<>(nameTerms.keySet());
+            terms.addAll(descriptionTerms.keySet());
+            return terms;
+        }
+    }
+
+    private final MenuRepository menuRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    // unstemmed word -> number of documents containing it, for prefix matching of the last query word
+    private final NavigableMap<String, Integer> words = new TreeMap<>();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+
+    @EventListener(CatalogReloadEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        List<Object[]> rows = menuRepository.findSearchDocuments();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            words.clear();
+            totalNameLength = 0;
+            totalDescriptionLength = 0;
+            for (Object[] row : rows) {
+                addDocument((Long) row[0], (Long) row[1], (String) row[2], (String) row[3]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Menu search index built with {} menus and {} terms", rows.size(), postings.size());
+    }
+
+    public synchronized void index(Menu menu) {
+        Long categoryId = menu.getCategory() != null ? menu.getCategory().getId() : null;
+        lock.writeLock().lock();
+        try {
+            removeDocument(menu.getId());
+            addDocument(menu.getId(), categoryId, menu.getName(), menu.getDescription());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public synchronized void remove(Long menuId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(menuId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // menus are cascade-deleted with their category
+    public synchronized void removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            documents.values().stream()
+                    .filter(document -> categoryId.equals(document.categoryId()))
+                    .map(Document::id)
+                    .toList()
+                    .forEach(this::removeDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of matching menus, best match first, optionally restricted to one category.
+     */
+    public List<Long> search(String query, Long categoryId) {
+        List<String> tokens = MenuTextAnalyzer.tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            // distinct query terms, each with the indexed terms it matches
+            Map<String, Set<String>> queryTerms = new LinkedHashMap<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                String queryTerm = MenuTextAnalyzer.stem(tokens.get(i));
+                if (queryTerm.length() < MenuTextAnalyzer.MIN_TERM_LENGTH) {
+                    continue;
+                }
+                Set<String> matches = queryTerms.computeIfAbsent(queryTerm, term -> new HashSet<>(expand(term)));
+                if (i == tokens.size() - 1) {
+                    matches.addAll(expandWord(tokens.get(i)));
+                }
+            }
+            if (queryTerms.isEmpty()) {
+                return List.of();
+            }
+            double averageNameLength = Math.max(1.0, (double) totalNameLength / documents.size());
+            double averageDescriptionLength = Math.max(1.0, (double) totalDescriptionLength / documents.size());
+
+            Map<Long, Double> scores = null;
+            for (Set<String> matches : queryTerms.values()) {
+                Map<Long, Double> termScores = new HashMap<>();
+                for (String term : matches) {
+                    Set<Long> ids = postings.get(term);
+                    double idf = Math.log(1 + (documents.size() - ids.size() + 0.5) / (ids.size() + 0.5));
+                    for (Long id : ids) {
+                        Document document = documents.get(id);
+                        if (categoryId != null && !categoryId.equals(document.categoryId())) {
+                            continue;
+                        }
+                        double tf = NAME_WEIGHT * normalizedFrequency(document.nameTerms(), term, document.nameLength(), averageNameLength)
+                                + DESCRIPTION_WEIGHT * normalizedFrequency(document.descriptionTerms(), term, document.descriptionLength(), averageDescriptionLength);
+                        termScores.merge(id, idf * tf / (K1 + tf), Math::max);
+                    }
+                }
+
+                // every query term has to match
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()));
+            return ranked.stream().map(Map.Entry::getKey).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // the exact term when indexed, plus indexed terms it is a prefix of (typing "piz" finds "pizza")
+    private Collection<String> expand(String queryTerm) {
+        List<String> terms = new ArrayList<>();
+        for (String term : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).keySet()) {
+            terms.add(term);
+            if (terms.size() >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return terms;
+    }
+
+    // stems of the indexed words the unstemmed query word is a prefix of ("puddi" finds "pudding" -> "pudd")
+    private Collection<String> expandWord(String queryWord) {
+        Set<String> terms = new HashSet<>();
+        for (String word : words.subMap(queryWord, true, queryWord + Character.MAX_VALUE, false).keySet()) {
+            String term = MenuTextAnalyzer.stem(word);
+            if (postings.containsKey(term)) {
+                terms.add(term);
+            }
+            if (terms.size() >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return terms;
+    }
+
+    private static double normalizedFrequency(Map<String, Integer> terms, String term, int length, double averageLength) {
+        Integer frequency = terms.get(term);
+        if (frequency == null) {
+            return 0;
+        }
+        return frequency / (1 - B + B * length / averageLength);
+    }
+
+    private void addDocument(Long id, Long categoryId, String name, String description) {
+        List<String> nameTerms = MenuTextAnalyzer.analyze(name);
+        List<String> descriptionTerms = MenuTextAnalyzer.analyze(description);
+        Set<String> documentWords = new HashSet<>(MenuTextAnalyzer.tokenize(name));
+        documentWords.addAll(MenuTextAnalyzer.tokenize(description));
+        Document document = new Document(id, categoryId,
+                termFrequencies(nameTerms), nameTerms.size(),
+                termFrequencies(descriptionTerms), descriptionTerms.size(),
+                documentWords);
+
+        documents.put(id, document);
+        totalNameLength += document.nameLength();
+        totalDescriptionLength += document.descriptionLength();
+        for (String term : document.terms()) {
+            postings.computeIfAbsent(term, t -> new HashSet<>()).add(id);
+        }
+        for (String word : document.words()) {
+            words.merge(word, 1, Integer::sum);
+        }
+    }
+
+    private void removeDocument(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        totalNameLength -= document.nameLength();
+        totalDescriptionLength -= document.descriptionLength();
+        for (String term : document.terms()) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (String word : document.words()) {
+            // drops the word once no document contains it
+            words.computeIfPresent(word, (w, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private static Map<String, Integer> termFrequencies(List<String> terms) {
+        if (terms.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+}
@@ -0,0 +1,112 @@
+package com.phegon.FoodApp.menu.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.phegon.FoodApp.catalog.events.CatalogChangedEvent;
+import com.phegon.FoodApp.menu.dtos.MenuDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of menu search results keyed by catalog version, category and the normalized
+ * query, so "Pizza", "pizzas " and "PIZZA" share one entry. Concurrent misses for the same key wait
+ * for a single load instead of each running the search.
+ */
+@Component
+public class MenuSearchResultCache {
+
+    private record Key(long catalogVersion, Long categoryId, String terms) {
+    }
+
+    private final Cache<Key, List<MenuDTO>> results;
+    private final ConcurrentHashMap<Key, CompletableFuture<List<MenuDTO>>> inFlight = new ConcurrentHashMap<>();
+    private final Timer loadTimer;
+    private final Counter coalescedWaiters;
+
+    public MenuSearchResultCache(MeterRegistry meterRegistry,
+                                 @Value("${menu.search-cache.max-size:1000}") long maxSize) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        // exposes cache.gets{result=hit|miss}, cache.evictions and cache.size under cache=menuSearchResults
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "menuSearchResults");
+        this.loadTimer = Timer.builder("foodapp.menu.search.load")
+                .description("Time to compute a menu search result on a cache miss")
+                .register(meterRegistry);
+        this.coalescedWaiters = Counter.builder("foodapp.menu.search.coalesced")
+                .description("Search cache misses that waited for a load already in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached result for the query at the given catalog version, or runs the loader once
+     * for all callers that miss on the same key at the same time. The returned list is shared.
+     */
+    public List<MenuDTO> get(long catalogVersion, Long categoryId, String search, Supplier<List<MenuDTO>> loader) {
+        Key key = new Key(catalogVersion, categoryId, normalize(search));
+        List<MenuDTO> cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<List<MenuDTO>> flight = new CompletableFuture<>();
+        CompletableFuture<List<MenuDTO>> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedWaiters.increment();
+            return await(existing);
+        }
+        try {
+            // the previous flight may have finished between the lookup and putIfAbsent, asMap() skips the stats
+            List<MenuDTO> loaded = results.asMap().get(key);
+            if (loaded == null) {
+                loaded = List.copyOf(loadTimer.record(loader));
+                results.put(key, loaded);
+            }
+            flight.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // entries of older versions can never be hit again, drop them instead of waiting for eviction
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        results.asMap().keySet().removeIf(key -> key.catalogVersion() < event.getVersion());
+    }
+
+    // the index looks at the distinct analyzed terms plus the last word as typed, so the order of
+    // the other words, case and their plurals do not matter
+    static String normalize(String search) {
+        List<String> tokens = MenuTextAnalyzer.tokenize(search);
+        String lastWord = tokens.isEmpty() ? "" : tokens.get(tokens.size() - 1);
+        return String.join(" ", new TreeSet<>(MenuTextAnalyzer.analyze(search))) + "|" + lastWord;
+    }
+
+    private static List<MenuDTO> await(CompletableFuture<List<MenuDTO>> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.phegon.FoodApp.menu.services;
 
 import com.phegon.FoodApp.menu.dtos.MenuDTO;
+import com.phegon.FoodApp.menu.dtos.MenuSummaryDTO;
+import com.phegon.FoodApp.menu.dtos.PriceAdjustmentDTO;
+import com.phegon.FoodApp.menu.dtos.SuggestionDTO;
 import com.phegon.FoodApp.response.Response;
 
 import java.util.List;
@@ -12,4 +15,7 @@ public interface MenuService {
     Response<MenuDTO> getMenuById(Long id);
     Response<?> deleteMenu(Long id);
     Response<List<MenuDTO>> getMenus(Long categoryId, String search);
+    Response<Integer> adjustPrices(PriceAdjustmentDTO priceAdjustmentDTO);
+    Response<List<MenuSummaryDTO>> getMenuPage(Long categoryId, String sort, String cursor, Integer limit);
+    Response<List<SuggestionDTO>> suggestMenus(String prefix, int limit);
 }
@@ -1,58 +1,85 @@
 package com.phegon.FoodApp.menu.services;
 
 import com.phegon.FoodApp.aws.AWSS3Service;
+import com.phegon.FoodApp.catalog.services.CatalogService;
+import com.phegon.FoodApp.catalog.services.CatalogSnapshot;
 import com.phegon.FoodApp.category.entity.Category;
 import com.phegon.FoodApp.category.repository.CategoryRepository;
+import com.phegon.FoodApp.enums.MenuSortKey;
 import com.phegon.FoodApp.exceptions.BadRequestException;
 import com.phegon.FoodApp.exceptions.NotFoundException;
 import com.phegon.FoodApp.menu.dtos.MenuDTO;
+import com.phegon.FoodApp.menu.dtos.MenuSummaryDTO;
+import com.phegon.FoodApp.menu.dtos.PriceAdjustmentDTO;
+import com.phegon.FoodApp.menu.dtos.SuggestionDTO;
 import com.phegon.FoodApp.menu.entity.Menu;
 import com.phegon.FoodApp.menu.repository.MenuRepository;
+import com.phegon.FoodApp.pricing.services.PricingEngine;
 import com.phegon.FoodApp.response.Response;
 import com.phegon.FoodApp.review.dtos.ReviewDTO;
-import jakarta.persistence.criteria.Predicate;
+import com.phegon.FoodApp.review.repository.ReviewRepository;
+import com.phegon.FoodApp.review.services.ReviewServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.java.Log;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
 
+import java.io.Serializable;
+import java.math.BigDecimal;
 import java.net.URL;
-import java.util.Comparator;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MenuServiceImpl implements MenuService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EMBEDDED_REVIEWS = 10;
 
     private final MenuRepository menuRepository;
     private final CategoryRepository    categoryRepository;
     private final ModelMapper modelMapper;
     private final AWSS3Service awsS3Service;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MenuSuggestionIndex menuSuggestionIndex;
+    private final CatalogService catalogService;
+    private final ReviewRepository reviewRepository;
+    private final MenuSearchResultCache menuSearchResultCache;
+    private final PricingEngine pricingEngine;
 
     @Override
     public Response<MenuDTO> createMenu(MenuDTO menuDTO) {
         log.info("Creating new menu: {}", menuDTO.getName());
-        Category category = categoryRepository.findById(menuDTO.getCategoryId())
-                .orElseThrow(() -> new NotFoundException("Category not found"));
-
-        String imageUrl = null;
 
         MultipartFile imageFile = menuDTO.getImageFile();
         if (imageFile == null || imageFile.isEmpty()) {
             throw new BadRequestException("Image file is required");
         }
 
-        String imageName = UUID.randomUUID() + "_" + imageFile.getOriginalFilename();
-        URL s3Url = awsS3Service.uploadFile("menus/" + imageName, imageFile);
-        imageUrl = s3Url.toString();
+        // the upload runs while the category is looked up
+        String imageKey = "menus/" + UUID.randomUUID() + "_" + imageFile.getOriginalFilename();
+        CompletableFuture<URL> upload = awsS3Service.uploadFileAsync(imageKey, imageFile);
+        Category category = categoryRepository.findById(menuDTO.getCategoryId())
+                .orElseThrow(() -> {
+                    awsS3Service.discardUpload(upload, imageKey);
+                    return new NotFoundException("Category not found");
+                });
+
+        String imageUrl = upload.join().toString();
         Menu menu = Menu.builder()
                 .name(menuDTO.getName())
                 .description(menuDTO.getDescription())
@@ -60,7 +87,16 @@ public class MenuServiceImpl implements MenuService {
                 .imageUrl(imageUrl)
                 .category(category)
                 .build();
-        Menu savedMenu = menuRepository.save(menu);
+        Menu savedMenu;
+        try {
+            savedMenu = menuRepository.save(menu);
+        } catch (RuntimeException e) {
+            awsS3Service.deleteFileLater(imageKey);
+            throw e;
+        }
+        menuSearchIndex.index(savedMenu);
+        menuSuggestionIndex.putMenu(savedMenu);
+        catalogService.putMenu(savedMenu);
 
         return  Response.<MenuDTO>builder()
                 .statusCode(200)
@@ -75,25 +111,27 @@ public class MenuServiceImpl implements MenuService {
         Menu existingMenu = menuRepository.findById(menuDTO.getId())
                 .orElseThrow(() -> new NotFoundException("Menu not found"));
 
-        Category category = categoryRepository.findById(menuDTO.getCategoryId())
-                .orElseThrow(() -> new NotFoundException("Category not found"));
-
-        String imageUrl = existingMenu.getImageUrl();
+        String previousImageUrl = existingMenu.getImageUrl();
+        String imageUrl = previousImageUrl;
         MultipartFile imageFile = menuDTO.getImageFile();
 
-        // check if a new image is provided
+        // check if a new image is provided, it uploads while the category is looked up
+        String imageKey = null;
+        CompletableFuture<URL> upload = null;
         if (imageFile != null && !imageFile.isEmpty()) {
-           // delete the old image from s3 if it exists
-            if ( imageUrl != null && !imageUrl.isEmpty()) {
-                String keyName = imageUrl.substring(imageUrl.lastIndexOf("/") + 1);
-                awsS3Service.deleteFile("menus/"+ keyName);
+            imageKey = "menus/" + UUID.randomUUID() + "_" + imageFile.getOriginalFilename();
+            upload = awsS3Service.uploadFileAsync(imageKey, imageFile);
+        }
 
-                log.info("Deleted old image from S3: {}", keyName);
+        Category category = categoryRepository.findById(menuDTO.getCategoryId()).orElse(null);
+        if (category == null) {
+            if (upload != null) {
+                awsS3Service.discardUpload(upload, imageKey);
             }
-            // upload new image
-            String imageName = UUID.randomUUID() + "_" + imageFile.getOriginalFilename();
-            URL newImageUrl= awsS3Service.uploadFile("menus/" + imageName, imageFile);
-            imageUrl = newImageUrl.toString();
+            throw new NotFoundException("Category not found");
+        }
+        if (upload != null) {
+            imageUrl = upload.join().toString();
         }
 
         if (menuDTO.getName() != null && !menuDTO.getName().isBlank()) existingMenu.setName(menuDTO.getName());
@@ -105,7 +143,22 @@ public class MenuServiceImpl implements MenuService {
         existingMenu.setImageUrl(imageUrl);
         existingMenu.setCategory(category);
 
-        Menu updatedMenu = menuRepository.save(existingMenu);
+        Menu updatedMenu;
+        try {
+            updatedMenu = menuRepository.save(existingMenu);
+        } catch (RuntimeException e) {
+            if (upload != null) {
+                awsS3Service.deleteFileLater(imageKey);
+            }
+            throw e;
+        }
+        // the old image is removed by the batched delete queue, not within this request
+        if (upload != null && previousImageUrl != null && !previousImageUrl.isEmpty()) {
+            awsS3Service.deleteFileLater(imageKeyOf(previousImageUrl));
+        }
+        menuSearchIndex.index(updatedMenu);
+        menuSuggestionIndex.putMenu(updatedMenu);
+        catalogService.putMenu(updatedMenu);
 
         return Response.<MenuDTO>builder()
                 .statusCode(HttpStatus.OK.value())
@@ -118,20 +171,30 @@ public class MenuServiceImpl implements MenuService {
     public Response<MenuDTO> getMenuById(Long id) {
         log.info("Fetching menu by ID: {}", id);
 
-        Menu existingMenu = menuRepository.findById(id)
+        CatalogSnapshot catalog = catalogService.current();
+        MenuDTO catalogMenu = catalog.findMenu(id)
                 .orElseThrow(() -> new NotFoundException("Menu not found"));
 
-        MenuDTO menuDTO = modelMapper.map(existingMenu, MenuDTO.class);
+        // reviews are not part of the catalog: only the newest few are embedded, the rest are paged
+        // through the review endpoint starting from nextReviewCursor
+        List<ReviewDTO> rows = reviewRepository.findReviewDTOsByMenuId(id, Limit.of(EMBEDDED_REVIEWS + 1));
+        boolean moreReviews = rows.size() > EMBEDDED_REVIEWS;
+        List<ReviewDTO> reviews = moreReviews ? rows.subList(0, EMBEDDED_REVIEWS) : rows;
+
+        // snapshot DTOs are shared between requests, so the detail view gets its own copy
+        MenuDTO menuDTO = copyOf(catalogMenu);
+        menuDTO.setReviews(reviews);
 
-        // Sort the reviews in descending order by ID
-        if (menuDTO.getReviews() != null){
-            menuDTO.getReviews().sort(Comparator.comparing(ReviewDTO::getId).reversed());
+        Map<String, Serializable> meta = new HashMap<>(catalogService.versionMeta(catalog));
+        if (moreReviews) {
+            meta.put(ReviewServiceImpl.NEXT_REVIEW_CURSOR, reviews.get(reviews.size() - 1).getId());
         }
 
         return Response.<MenuDTO>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Menu fetched successfully")
                 .data(menuDTO)
+                .meta(meta)
                 .build();
     }
 
@@ -142,14 +205,15 @@ public class MenuServiceImpl implements MenuService {
         Menu menu = menuRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Menu not found"));
 
-        // delete the image from s3 if it exists
+        menuRepository.deleteById(id);
+        // queue the image delete from s3 if it exists
         String imageUrl = menu.getImageUrl();
         if (imageUrl != null && !imageUrl.isEmpty()) {
-            String keyName = imageUrl.substring(imageUrl.lastIndexOf("/") + 1);
-            awsS3Service.deleteFile("menus/" + keyName);
-            log.info("Deleted image from S3: {}", keyName);
+            awsS3Service.deleteFileLater(imageKeyOf(imageUrl));
         }
-        menuRepository.deleteById(id);
+        menuSearchIndex.remove(id);
+        menuSuggestionIndex.removeMenu(id);
+        catalogService.removeMenu(id);
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Menu deleted successfully")
@@ -160,42 +224,148 @@ public class MenuServiceImpl implements MenuService {
     public Response<List<MenuDTO>> getMenus(Long categoryId, String search) {
         log.info("Fetching menus with categoryId: {} and search: {}", categoryId, search);
 
-        Specification<Menu> spec = buildSpecification(categoryId, search);
-        Sort sort = Sort.by(Sort.Direction.DESC, "id");
-
-        List<Menu> menuLists = menuRepository.findAll(spec, sort);
-
-        List<MenuDTO> menuDTOs = menuLists.stream()
-                .map(menu -> modelMapper.map(menu, MenuDTO.class))
-                .toList();
+        CatalogSnapshot catalog = catalogService.current();
+        List<MenuDTO> menuDTOs;
+        if (search != null && !search.isBlank()) {
+            // ranked ids come from the in-memory index, the menus themselves from the snapshot
+            menuDTOs = menuSearchResultCache.get(catalog.getVersion(), categoryId, search,
+                    () -> menuSearchIndex.search(search, categoryId).stream()
+                            .map(catalog::findMenu)
+                            .flatMap(Optional::stream)
+                            .toList());
+        } else if (categoryId != null) {
+            menuDTOs = catalog.getMenusInCategory(categoryId);
+        } else {
+            menuDTOs = catalog.getMenus();
+        }
 
         return Response.<List<MenuDTO>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Menus fetched successfully")
                 .data(menuDTOs)
+                .meta(catalogService.versionMeta(catalog))
                 .build();
     }
 
-    private Specification<Menu> buildSpecification(Long categoryId, String search) {
-        return ((root, query, cb) -> {
+    @Override
+    public Response<Integer> adjustPrices(PriceAdjustmentDTO priceAdjustmentDTO) {
+        log.info("Adjusting prices: {}", priceAdjustmentDTO);
 
-            // list to accumulate all where conditions
-            List<Predicate> predicates = new java.util.ArrayList<>();
+        boolean byIds = priceAdjustmentDTO.getMenuIds() != null && !priceAdjustmentDTO.getMenuIds().isEmpty();
+        boolean byCategory = priceAdjustmentDTO.getCategoryId() != null;
+        if (byIds == byCategory) {
+            throw new BadRequestException("Provide either menu IDs or a category ID");
+        }
+        if ((priceAdjustmentDTO.getPrice() == null) == (priceAdjustmentDTO.getPercentage() == null)) {
+            throw new BadRequestException("Provide either a price or a percentage");
+        }
 
-            // add category condition if categoryId is provided
-            if (categoryId != null) {
-                predicates.add(cb.equal(root.get("category").get("id"), categoryId));
-            }
+        BigDecimal factor;
+        BigDecimal amount;
+        if (priceAdjustmentDTO.getPrice() != null) {
+            factor = BigDecimal.ZERO;
+            amount = priceAdjustmentDTO.getPrice();
+        } else {
+            factor = BigDecimal.ONE.add(priceAdjustmentDTO.getPercentage().movePointLeft(2));
+            amount = BigDecimal.ZERO;
+        }
 
-            if (search != null && !search.isBlank()) {
-                String searchPattern = "%" + search.toLowerCase() + "%";
-                predicates.add(cb.or(
-                        cb.like(cb.lower(root.get("name")), searchPattern),
-                        cb.like(cb.lower(root.get("description")), searchPattern)
-                ));
-            }
+        // one UPDATE for the whole set, then one snapshot rebuild instead of one per menu
+        int updated = byIds
+                ? menuRepository.adjustPricesByIds(priceAdjustmentDTO.getMenuIds(), factor, amount)
+                : menuRepository.adjustPricesByCategory(priceAdjustmentDTO.getCategoryId(), factor, amount);
+        if (updated > 0) {
+            catalogService.rebuild();
+        }
+        log.info("Adjusted the price of {} menus", updated);
+
+        return Response.<Integer>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Prices updated successfully")
+                .data(updated)
+                .build();
+    }
+
+    @Override
+    public Response<List<MenuSummaryDTO>> getMenuPage(Long categoryId, String sort, String cursor, Integer limit) {
+        log.info("Fetching menu page with categoryId: {}, sort: {} and cursor: {}", categoryId, sort, cursor);
+
+        MenuPageCursor after = cursor == null || cursor.isBlank() ? null : MenuPageCursor.decode(cursor);
+        MenuSortKey sortKey = after != null ? after.sortKey() : parseSortKey(sort);
+        if (after != null && sort != null && parseSortKey(sort) != sortKey) {
+            throw new BadRequestException("Cursor does not match the requested sort");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // one row more than the page tells whether there is a next page
+        List<MenuSummaryDTO> rows = menuRepository.findMenuSummaries(categoryId, sortKey,
+                after != null ? after.typedValue() : null,
+                after != null ? after.id() : null,
+                pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<MenuSummaryDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+        int slot = pricingEngine.currentSlot();
+        page.forEach(row -> row.setEffectivePrice(
+                pricingEngine.effectivePrice(row.getId(), row.getCategoryId(), row.getPrice(), slot)));
+
+        Map<String, Serializable> meta = new HashMap<>(catalogService.versionMeta(catalogService.current()));
+        if (hasMore) {
+            meta.put("nextCursor", MenuPageCursor.after(sortKey, page.get(page.size() - 1)).encode());
+        }
+
+        return Response.<List<MenuSummaryDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Menus fetched successfully")
+                .data(page)
+                .meta(meta)
+                .build();
+    }
+
+    @Override
+    public Response<List<SuggestionDTO>> suggestMenus(String prefix, int limit) {
+        // called on every keystroke, so no info logging and no database access
+        log.debug("Suggesting menus for prefix: {}", prefix);
+
+        int boundedLimit = Math.max(1, Math.min(limit, MenuSuggestionIndex.MAX_SUGGESTIONS));
+        List<SuggestionDTO> suggestions = prefix == null || prefix.isBlank()
+                ? List.of()
+                : menuSuggestionIndex.suggest(prefix.strip(), boundedLimit);
+
+        return Response.<List<SuggestionDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Suggestions fetched successfully")
+                .data(suggestions)
+                .build();
+    }
+
+    // object URLs percent-encode the key, so "a b.jpg" is stored as "a b.jpg" but linked as "a%20b.jpg"
+    private static String imageKeyOf(String imageUrl) {
+        return "menus/" + UriUtils.decode(imageUrl.substring(imageUrl.lastIndexOf("/") + 1), StandardCharsets.UTF_8);
+    }
+
+    private static MenuSortKey parseSortKey(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return MenuSortKey.NEWEST;
+        }
+        try {
+            return MenuSortKey.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported sort: " + sort);
+        }
+    }
 
-            return cb.and(predicates.toArray(new Predicate[0])); // convert list to array
-        });
+    private static MenuDTO copyOf(MenuDTO source) {
+        MenuDTO menuDTO = new MenuDTO();
+        menuDTO.setId(source.getId());
+        menuDTO.setName(source.getName());
+        menuDTO.setDescription(source.getDescription());
+        menuDTO.setPrice(source.getPrice());
+        menuDTO.setEffectivePrice(source.getEffectivePrice());
+        menuDTO.setImageUrl(source.getImageUrl());
+        menuDTO.setCategoryId(source.getCategoryId());
+        menuDTO.setAverageRating(source.getAverageRating());
+        menuDTO.setReviewCount(source.getReviewCount());
+        menuDTO.setStarHistogram(source.getStarHistogram());
+        return menuDTO;
     }
 }
@@ -0,0 +1,134 @@
+package com.phegon.FoodApp.menu.services;
+
+import com.phegon.FoodApp.catalog.events.CatalogReloadEvent;
+import com.phegon.FoodApp.category.entity.Category;
+import com.phegon.FoodApp.category.repository.CategoryRepository;
+import com.phegon.FoodApp.menu.dtos.SuggestionDTO;
+import com.phegon.FoodApp.menu.entity.Menu;
+import com.phegon.FoodApp.menu.repository.MenuRepository;
+import com.phegon.FoodApp.order.repository.OrderItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the autocomplete trie of menu and category names. Catalog writes update the entry map and
+ * swap in a freshly built trie, reads never block and never touch the database.
+ * Menus are ranked by how many times they were ordered, categories by the total of their menus.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MenuSuggestionIndex {
+
+    static final int MAX_SUGGESTIONS = 10;
+
+    private static final String TYPE_MENU = "MENU";
+    private static final String TYPE_CATEGORY = "CATEGORY";
+
+    private record MenuEntry(String name, Long categoryId) {
+    }
+
+    private final MenuRepository menuRepository;
+    private final CategoryRepository categoryRepository;
+    private final OrderItemRepository orderItemRepository;
+
+    // source of truth for rebuilds, guarded by this
+    private final Map<Long, MenuEntry> menus = new HashMap<>();
+    private final Map<Long, String> categories = new HashMap<>();
+    private Map<Long, Long> menuPopularity = new HashMap<>();
+
+    private volatile SuggestionTrie trie = SuggestionTrie.EMPTY;
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        return trie.lookup(prefix).stream()
+                .limit(limit)
+                .map(suggestion -> new SuggestionDTO(suggestion.id(), suggestion.type(), suggestion.text()))
+                .toList();
+    }
+
+    // rebuilt with every full catalog reload, which also brings in the writes of other nodes, and
+    // once an hour to re-read order counts so the ranking follows what people actually order
+    @EventListener(CatalogReloadEvent.class)
+    @Scheduled(initialDelayString = "PT1H", fixedDelayString = "PT1H")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, Long> popularity = new HashMap<>();
+        for (Object[] row : orderItemRepository.sumQuantityByMenu()) {
+            popularity.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        List<Object[]> menuRows;
+        List<Category> categoryRows;
+        // read under the monitor, a write committed meanwhile is applied after the rebuild instead of lost
+        synchronized (this) {
+            menuRows = menuRepository.findSearchDocuments();
+            categoryRows = categoryRepository.findAll();
+            menuPopularity = popularity;
+            menus.clear();
+            for (Object[] row : menuRows) {
+                menus.put((Long) row[0], new MenuEntry((String) row[2], (Long) row[1]));
+            }
+            categories.clear();
+            for (Category category : categoryRows) {
+                categories.put(category.getId(), category.getName());
+            }
+            swapTrie();
+        }
+        log.info("Suggestion trie built with {} menus and {} categories", menuRows.size(), categoryRows.size());
+    }
+
+    public synchronized void putMenu(Menu menu) {
+        Long categoryId = menu.getCategory() != null ? menu.getCategory().getId() : null;
+        menus.put(menu.getId(), new MenuEntry(menu.getName(), categoryId));
+        swapTrie();
+    }
+
+    public synchronized void removeMenu(Long menuId) {
+        menus.remove(menuId);
+        swapTrie();
+    }
+
+    public synchronized void putCategory(Category category) {
+        categories.put(category.getId(), category.getName());
+        swapTrie();
+    }
+
+    // menus are cascade-deleted with their category
+    public synchronized void removeCategory(Long categoryId) {
+        categories.remove(categoryId);
+        menus.values().removeIf(entry -> categoryId.equals(entry.categoryId()));
+        swapTrie();
+    }
+
+    private void swapTrie() {
+        Map<Long, Long> categoryPopularity = new HashMap<>();
+        List<SuggestionTrie.Suggestion> suggestions = new ArrayList<>(menus.size() + categories.size());
+
+        menus.forEach((id, entry) -> {
+            if (entry.name() == null || entry.name().isBlank()) {
+                return;
+            }
+            long popularity = menuPopularity.getOrDefault(id, 0L);
+            suggestions.add(new SuggestionTrie.Suggestion(TYPE_MENU + id, id, TYPE_MENU, entry.name(), popularity));
+            if (entry.categoryId() != null) {
+                categoryPopularity.merge(entry.categoryId(), popularity, Long::sum);
+            }
+        });
+        categories.forEach((id, name) -> {
+            if (name != null && !name.isBlank()) {
+                suggestions.add(new SuggestionTrie.Suggestion(TYPE_CATEGORY + id, id, TYPE_CATEGORY, name,
+                        categoryPopularity.getOrDefault(id, 0L)));
+            }
+        });
+
+        trie = SuggestionTrie.build(suggestions, MAX_SUGGESTIONS);
+    }
+}
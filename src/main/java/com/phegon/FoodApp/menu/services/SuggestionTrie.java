@@ -0,0 +1,131 @@
+package com.phegon.FoodApp.menu.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable radix tree over lower-cased suggestion keys. Every node stores the top-k suggestions of
+ * its whole subtree, computed once at build time, so a lookup is a walk down the prefix and nothing
+ * else.
+ */
+final class SuggestionTrie {
+
+    record Suggestion(String key, Long id, String type, String text, long popularity) {
+    }
+
+    private static final Comparator<Suggestion> BY_POPULARITY = Comparator
+            .comparingLong(Suggestion::popularity).reversed()
+            .thenComparing(Suggestion::text);
+
+    private static final class Node {
+        String label; // edge label leading into this node
+        final Map<Character, Node> children = new HashMap<>();
+        final List<Suggestion> terminals = new ArrayList<>(1);
+        List<Suggestion> top = List.of();
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    static final SuggestionTrie EMPTY = new SuggestionTrie(new Node(""));
+
+    private final Node root;
+
+    private SuggestionTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds a trie in which each suggestion is reachable from the start of every word of its text,
+     * so "pizza" also suggests "Cheese Pizza".
+     */
+    static SuggestionTrie build(Iterable<Suggestion> suggestions, int topK) {
+        Node root = new Node("");
+        for (Suggestion suggestion : suggestions) {
+            String text = suggestion.text().toLowerCase(Locale.ROOT);
+            for (int i = 0; i < text.length(); i++) {
+                if (Character.isLetterOrDigit(text.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                    insert(root, text.substring(i), suggestion);
+                }
+            }
+        }
+        computeTop(root, topK);
+        return new SuggestionTrie(root);
+    }
+
+    List<Suggestion> lookup(String prefix) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                return List.of();
+            }
+            int remaining = key.length() - i;
+            if (remaining <= child.label.length()) {
+                return child.label.startsWith(key.substring(i)) ? child.top : List.of();
+            }
+            if (!key.startsWith(child.label, i)) {
+                return List.of();
+            }
+            node = child;
+            i += child.label.length();
+        }
+        return node.top;
+    }
+
+    private static void insert(Node root, String key, Suggestion suggestion) {
+        Node node = root;
+        int i = 0;
+        while (true) {
+            if (i == key.length()) {
+                node.terminals.add(suggestion);
+                return;
+            }
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                Node leaf = new Node(key.substring(i));
+                leaf.terminals.add(suggestion);
+                node.children.put(key.charAt(i), leaf);
+                return;
+            }
+
+            int common = 0;
+            while (common < child.label.length() && i + common < key.length()
+                    && child.label.charAt(common) == key.charAt(i + common)) {
+                common++;
+            }
+            if (common < child.label.length()) {
+                // split the edge at the point where the keys diverge
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                node.children.put(middle.label.charAt(0), middle);
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+    }
+
+    private static List<Suggestion> computeTop(Node node, int topK) {
+        // the same suggestion can sit under several word starts, keep it once per subtree
+        Map<String, Suggestion> candidates = new LinkedHashMap<>();
+        node.terminals.forEach(suggestion -> candidates.putIfAbsent(suggestion.key(), suggestion));
+        for (Node child : node.children.values()) {
+            computeTop(child, topK).forEach(suggestion -> candidates.putIfAbsent(suggestion.key(), suggestion));
+        }
+        node.top = candidates.values().stream()
+                .sorted(BY_POPULARITY)
+                .limit(topK)
+                .toList();
+        return node.top;
+    }
+}
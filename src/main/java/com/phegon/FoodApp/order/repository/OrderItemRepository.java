@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     // Additional query methods can be defined here if needed
 
@@ -16,4 +18,8 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
             @Param("orderId") Long orderId, // need @param to specify the parameter name for the query
             @Param("menuId") Long menuId
     );
+
+    // [menuId, total quantity ordered], used to rank search suggestions by popularity
+    @Query("SELECT oi.menu.id, SUM(oi.quantity) FROM OrderItem oi GROUP BY oi.menu.id")
+    List<Object[]> sumQuantityByMenu();
 }
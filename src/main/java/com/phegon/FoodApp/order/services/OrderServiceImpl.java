@@ -19,6 +19,7 @@ import com.phegon.FoodApp.order.entity.Order;
 import com.phegon.FoodApp.order.entity.OrderItem;
 import com.phegon.FoodApp.order.repository.OrderItemRepository;
 import com.phegon.FoodApp.order.repository.OrderRepository;
+import com.phegon.FoodApp.pricing.services.PricingEngine;
 import com.phegon.FoodApp.response.Response;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -58,6 +59,7 @@ public class OrderServiceImpl implements OrderService{
     private final TemplateEngine templateEngine;
     private final CartService cartService;
     private final CartRepository    cartRepository;
+    private final PricingEngine pricingEngine;
 
     @Value("${base.payment.link}")
     private String basePaymentLink;
@@ -86,11 +88,13 @@ public class OrderServiceImpl implements OrderService{
         BigDecimal totalAmount = BigDecimal.ZERO;
 
         for (CartItem cartItem : cartItems) {
+            // charge the price in effect at checkout, a special that ended while the cart sat does not apply
+            BigDecimal unitPrice = pricingEngine.effectivePrice(cartItem.getMenu());
             OrderItem orderItem = OrderItem.builder()
                     .menu(cartItem.getMenu())
                     .quantity(cartItem.getQuantity())
-                    .pricePerUnit(cartItem.getPricePerUnit())
-                    .subTotal(cartItem.getSubTotal())
+                    .pricePerUnit(unitPrice)
+                    .subTotal(unitPrice.multiply(BigDecimal.valueOf(cartItem.getQuantity())))
                     .build();
             orderItems.add(orderItem);
             totalAmount = totalAmount.add(orderItem.getSubTotal());
@@ -0,0 +1,53 @@
+package com.phegon.FoodApp.pricing.controller;
+
+import com.phegon.FoodApp.pricing.dtos.PricingRuleDTO;
+import com.phegon.FoodApp.pricing.services.PricingRuleService;
+import com.phegon.FoodApp.response.Response;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/pricing-rules")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class PricingRuleController {
+
+    private final PricingRuleService pricingRuleService;
+
+    @PostMapping
+    public ResponseEntity<Response<PricingRuleDTO>> createRule(
+            @RequestBody @Valid PricingRuleDTO pricingRuleDTO
+    ) {
+        return ResponseEntity.ok(
+                pricingRuleService.createRule(pricingRuleDTO)
+        );
+    }
+
+    @PutMapping
+    public ResponseEntity<Response<PricingRuleDTO>> updateRule(
+            @RequestBody @Valid PricingRuleDTO pricingRuleDTO
+    ) {
+        return ResponseEntity.ok(
+                pricingRuleService.updateRule(pricingRuleDTO)
+        );
+    }
+
+    @GetMapping
+    public ResponseEntity<Response<List<PricingRuleDTO>>> getAllRules() {
+        return ResponseEntity.ok(pricingRuleService.getAllRules());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Response<?>> deleteRule(
+            @PathVariable Long id
+    ) {
+        return ResponseEntity.ok(
+                pricingRuleService.deleteRule(id)
+        );
+    }
+}
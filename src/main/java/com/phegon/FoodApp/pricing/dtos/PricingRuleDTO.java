@@ -0,0 +1,48 @@
+package com.phegon.FoodApp.pricing.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Set;
+
+// targets either a menuId or a categoryId, and either sets a fixed price or applies a percentage
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PricingRuleDTO {
+
+    private Long id;
+
+    private String name;
+
+    private Long menuId;
+    private Long categoryId;
+
+    @NotEmpty(message = "At least one day is required")
+    private Set<DayOfWeek> days;
+
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+
+    @NotNull(message = "End time is required")
+    private LocalTime endTime;
+
+    @Positive(message = "Price must be a positive value")
+    private BigDecimal price;
+
+    // -20 lowers the price by 20% while the rule applies
+    @DecimalMin(value = "-99.99", message = "Percentage must be greater than -100")
+    private BigDecimal percentage;
+
+    private int priority;
+
+    private Boolean active;
+}
@@ -0,0 +1,55 @@
+package com.phegon.FoodApp.pricing.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+
+// a weekly recurring price change (happy hour, lunch special) for one menu or a whole category
+@Entity
+@Data
+@Table(name = "pricing_rules")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PricingRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+
+    // exactly one of menuId and categoryId is set, a menu rule wins over its category's rules
+    @Column(name = "menu_id")
+    private Long menuId;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    // bit 0 = Monday ... bit 6 = Sunday
+    @Column(name = "days_of_week", nullable = false)
+    private int daysOfWeek;
+
+    // on 15 minute boundaries, an end at or before the start runs past midnight
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    // either a fixed price or a percentage change of the menu price
+    private BigDecimal price;
+    private BigDecimal percentage;
+
+    // the highest priority applies where rules overlap, then the newest
+    @Column(nullable = false)
+    private int priority;
+
+    @Column(nullable = false)
+    private boolean active;
+}
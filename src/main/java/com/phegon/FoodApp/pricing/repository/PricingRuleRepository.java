@@ -0,0 +1,11 @@
+package com.phegon.FoodApp.pricing.repository;
+
+import com.phegon.FoodApp.pricing.entity.PricingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PricingRuleRepository extends JpaRepository<PricingRule, Long> {
+
+    List<PricingRule> findByActiveTrue();
+}
@@ -0,0 +1,91 @@
+package com.phegon.FoodApp.pricing.services;
+
+import com.phegon.FoodApp.pricing.entity.PricingRule;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The rules of one menu or category compiled into one price adjustment per 15 minute slot of the
+ * week, Monday 00:00 being slot 0. Looking up a price is an array access, rules are only evaluated
+ * when the timeline is compiled.
+ */
+final class PriceTimeline {
+
+    static final int SLOT_MINUTES = 15;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    static final int SLOTS_PER_WEEK = 7 * SLOTS_PER_DAY;
+
+    // new price = max(round(price * factor + amount, 2), 0.01), as in the bulk price adjustment
+    record Adjustment(BigDecimal factor, BigDecimal amount) {
+
+        // a -99.99% rule would otherwise round cheap menus down to a free item at checkout
+        static final BigDecimal MIN_PRICE = new BigDecimal("0.01");
+
+        static Adjustment of(PricingRule rule) {
+            if (rule.getPrice() != null) {
+                return new Adjustment(BigDecimal.ZERO, rule.getPrice());
+            }
+            return new Adjustment(BigDecimal.ONE.add(rule.getPercentage().movePointLeft(2)), BigDecimal.ZERO);
+        }
+
+        BigDecimal apply(BigDecimal price) {
+            return price.multiply(factor).add(amount).setScale(2, RoundingMode.HALF_UP).max(MIN_PRICE);
+        }
+    }
+
+    private final Adjustment[] slots;
+
+    private PriceTimeline(Adjustment[] slots) {
+        this.slots = slots;
+    }
+
+    static int slotOf(LocalDateTime time) {
+        int minuteOfDay = time.getHour() * 60 + time.getMinute();
+        return (time.getDayOfWeek().getValue() - 1) * SLOTS_PER_DAY + minuteOfDay / SLOT_MINUTES;
+    }
+
+    /**
+     * Compiles the rules into a timeline, or returns null when none of them covers any slot.
+     */
+    static PriceTimeline compile(Collection<PricingRule> rules) {
+        List<PricingRule> ordered = rules.stream()
+                .sorted(Comparator.comparingInt(PricingRule::getPriority).thenComparing(PricingRule::getId))
+                .toList();
+
+        Adjustment[] slots = new Adjustment[SLOTS_PER_WEEK];
+        boolean any = false;
+        // lowest priority first, so the rule that wins an overlap is painted last
+        for (PricingRule rule : ordered) {
+            Adjustment adjustment = Adjustment.of(rule);
+            int start = slotOfDay(rule.getStartTime());
+            int end = slotOfDay(rule.getEndTime());
+            int length = end > start ? end - start : SLOTS_PER_DAY - start + end;
+            for (int day = 0; day < 7; day++) {
+                if ((rule.getDaysOfWeek() & (1 << day)) == 0) {
+                    continue;
+                }
+                int first = day * SLOTS_PER_DAY + start;
+                for (int i = 0; i < length; i++) {
+                    slots[(first + i) % SLOTS_PER_WEEK] = adjustment;
+                    any = true;
+                }
+            }
+        }
+        return any ? new PriceTimeline(slots) : null;
+    }
+
+    // null when no rule applies in the slot
+    Adjustment at(int slot) {
+        return slots[slot];
+    }
+
+    private static int slotOfDay(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+}
@@ -0,0 +1,174 @@
+package com.phegon.FoodApp.pricing.services;
+
+import com.phegon.FoodApp.menu.entity.Menu;
+import com.phegon.FoodApp.pricing.entity.PricingRule;
+import com.phegon.FoodApp.pricing.repository.PricingRuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves effective menu prices from the compiled {@link PriceTimeline}s without touching the
+ * database: a slot index, at most two array reads and one multiply. Like the catalog, the compiled
+ * state is immutable and swapped as a whole; a rule change recompiles only the timelines of the
+ * menus or categories it targets.
+ * <p>
+ * Each node compiles its own copy. {@link com.phegon.FoodApp.catalog.services.CatalogService}
+ * reloads it whenever another node bumps the catalog revision and on every slot boundary.
+ */
+@Component
+@Slf4j
+public class PricingEngine {
+
+    private record Compiled(Map<Long, PricingRule> rules,
+                            Map<Long, PriceTimeline> byMenu,
+                            Map<Long, PriceTimeline> byCategory) {
+    }
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final Clock clock;
+
+    private volatile Compiled compiled;
+
+    public PricingEngine(PricingRuleRepository pricingRuleRepository,
+                         @Value("${pricing.zone:}") String zone) {
+        this.pricingRuleRepository = pricingRuleRepository;
+        this.clock = Clock.system(zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone));
+    }
+
+    public int currentSlot() {
+        return PriceTimeline.slotOf(LocalDateTime.now(clock));
+    }
+
+    public BigDecimal effectivePrice(Menu menu) {
+        Long categoryId = menu.getCategory() != null ? menu.getCategory().getId() : null;
+        return effectivePrice(menu.getId(), categoryId, menu.getPrice(), currentSlot());
+    }
+
+    public BigDecimal effectivePrice(Long menuId, Long categoryId, BigDecimal price, int slot) {
+        if (price == null) {
+            return null;
+        }
+        Compiled current = compiled();
+        PriceTimeline.Adjustment adjustment = adjustmentAt(current.byMenu(), menuId, slot);
+        if (adjustment == null) {
+            adjustment = adjustmentAt(current.byCategory(), categoryId, slot);
+        }
+        return adjustment == null ? price : adjustment.apply(price);
+    }
+
+    public synchronized void reload() {
+        Map<Long, PricingRule> rules = new HashMap<>();
+        pricingRuleRepository.findByActiveTrue().forEach(rule -> rules.put(rule.getId(), rule));
+        compiled = new Compiled(Map.copyOf(rules),
+                compileAll(rules, PricingRule::getMenuId),
+                compileAll(rules, PricingRule::getCategoryId));
+        log.info("Compiled {} active pricing rules", rules.size());
+    }
+
+    // rule is the saved state, inactive rules are dropped from the timelines
+    public synchronized void putRule(PricingRule rule) {
+        Compiled current = compiled();
+        PricingRule previous = current.rules().get(rule.getId());
+        Map<Long, PricingRule> rules = new HashMap<>(current.rules());
+        if (rule.isActive()) {
+            rules.put(rule.getId(), rule);
+        } else {
+            rules.remove(rule.getId());
+        }
+        swap(rules, previous, rule);
+    }
+
+    public synchronized void removeRule(Long ruleId) {
+        Compiled current = compiled();
+        PricingRule previous = current.rules().get(ruleId);
+        if (previous == null) {
+            return;
+        }
+        Map<Long, PricingRule> rules = new HashMap<>(current.rules());
+        rules.remove(ruleId);
+        swap(rules, previous, null);
+    }
+
+    private Compiled compiled() {
+        Compiled current = compiled;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (compiled == null) {
+                reload();
+            }
+            return compiled;
+        }
+    }
+
+    // recompiles the targets of the rule before and after the change, every other timeline is reused
+    private void swap(Map<Long, PricingRule> rules, PricingRule previous, PricingRule updated) {
+        Compiled current = compiled;
+        Map<Long, PriceTimeline> byMenu = new HashMap<>(current.byMenu());
+        Map<Long, PriceTimeline> byCategory = new HashMap<>(current.byCategory());
+        for (PricingRule changed : new PricingRule[]{previous, updated}) {
+            if (changed == null) {
+                continue;
+            }
+            recompile(byMenu, rules, PricingRule::getMenuId, changed.getMenuId());
+            recompile(byCategory, rules, PricingRule::getCategoryId, changed.getCategoryId());
+        }
+        compiled = new Compiled(Map.copyOf(rules), Map.copyOf(byMenu), Map.copyOf(byCategory));
+    }
+
+    private static void recompile(Map<Long, PriceTimeline> timelines,
+                                  Map<Long, PricingRule> rules,
+                                  Function<PricingRule, Long> target,
+                                  Long targetId) {
+        if (targetId == null) {
+            return;
+        }
+        List<PricingRule> targetRules = rules.values().stream()
+                .filter(rule -> targetId.equals(target.apply(rule)))
+                .toList();
+        PriceTimeline timeline = PriceTimeline.compile(targetRules);
+        if (timeline == null) {
+            timelines.remove(targetId);
+        } else {
+            timelines.put(targetId, timeline);
+        }
+    }
+
+    private static Map<Long, PriceTimeline> compileAll(Map<Long, PricingRule> rules, Function<PricingRule, Long> target) {
+        Map<Long, List<PricingRule>> byTarget = new HashMap<>();
+        for (PricingRule rule : rules.values()) {
+            Long targetId = target.apply(rule);
+            if (targetId != null) {
+                byTarget.computeIfAbsent(targetId, id -> new ArrayList<>()).add(rule);
+            }
+        }
+        Map<Long, PriceTimeline> timelines = new HashMap<>();
+        byTarget.forEach((targetId, targetRules) -> {
+            PriceTimeline timeline = PriceTimeline.compile(targetRules);
+            if (timeline != null) {
+                timelines.put(targetId, timeline);
+            }
+        });
+        return Map.copyOf(timelines);
+    }
+
+    private static PriceTimeline.Adjustment adjustmentAt(Map<Long, PriceTimeline> timelines, Long targetId, int slot) {
+        if (targetId == null) {
+            return null;
+        }
+        PriceTimeline timeline = timelines.get(targetId);
+        return timeline == null ? null : timeline.at(slot);
+    }
+}
@@ -0,0 +1,13 @@
+package com.phegon.FoodApp.pricing.services;
+
+import com.phegon.FoodApp.pricing.dtos.PricingRuleDTO;
+import com.phegon.FoodApp.response.Response;
+
+import java.util.List;
+
+public interface PricingRuleService {
+    Response<PricingRuleDTO> createRule(PricingRuleDTO pricingRuleDTO);
+    Response<PricingRuleDTO> updateRule(PricingRuleDTO pricingRuleDTO);
+    Response<?> deleteRule(Long id);
+    Response<List<PricingRuleDTO>> getAllRules();
+}
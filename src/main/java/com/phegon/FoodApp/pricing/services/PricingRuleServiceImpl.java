@@ -0,0 +1,170 @@
+package com.phegon.FoodApp.pricing.services;
+
+import com.phegon.FoodApp.catalog.services.CatalogService;
+import com.phegon.FoodApp.catalog.services.CatalogSnapshot;
+import com.phegon.FoodApp.exceptions.BadRequestException;
+import com.phegon.FoodApp.exceptions.NotFoundException;
+import com.phegon.FoodApp.pricing.dtos.PricingRuleDTO;
+import com.phegon.FoodApp.pricing.entity.PricingRule;
+import com.phegon.FoodApp.pricing.repository.PricingRuleRepository;
+import com.phegon.FoodApp.response.Response;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PricingRuleServiceImpl implements PricingRuleService {
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final PricingEngine pricingEngine;
+    private final CatalogService catalogService;
+
+    @Override
+    public Response<PricingRuleDTO> createRule(PricingRuleDTO pricingRuleDTO) {
+        log.info("Creating pricing rule: {}", pricingRuleDTO.getName());
+
+        PricingRule pricingRule = new PricingRule();
+        apply(pricingRuleDTO, pricingRule);
+        PricingRule savedRule = pricingRuleRepository.save(pricingRule);
+        publish(savedRule);
+
+        return Response.<PricingRuleDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Pricing rule created successfully")
+                .data(toDTO(savedRule))
+                .build();
+    }
+
+    @Override
+    public Response<PricingRuleDTO> updateRule(PricingRuleDTO pricingRuleDTO) {
+        log.info("Updating pricing rule: {}", pricingRuleDTO.getId());
+
+        if (pricingRuleDTO.getId() == null) {
+            throw new BadRequestException("Pricing rule ID is required");
+        }
+        PricingRule pricingRule = pricingRuleRepository.findById(pricingRuleDTO.getId())
+                .orElseThrow(() -> new NotFoundException("Pricing rule not found"));
+        apply(pricingRuleDTO, pricingRule);
+        PricingRule savedRule = pricingRuleRepository.save(pricingRule);
+        publish(savedRule);
+
+        return Response.<PricingRuleDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Pricing rule updated successfully")
+                .data(toDTO(savedRule))
+                .build();
+    }
+
+    @Override
+    public Response<?> deleteRule(Long id) {
+        log.info("Deleting pricing rule with ID: {}", id);
+
+        if (!pricingRuleRepository.existsById(id)) {
+            throw new NotFoundException("Pricing rule not found");
+        }
+        pricingRuleRepository.deleteById(id);
+        pricingEngine.removeRule(id);
+        catalogService.pricingRulesChanged();
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Pricing rule deleted successfully")
+                .build();
+    }
+
+    @Override
+    public Response<List<PricingRuleDTO>> getAllRules() {
+        log.info("Fetching all pricing rules");
+
+        List<PricingRuleDTO> rules = pricingRuleRepository.findAll().stream()
+                .map(PricingRuleServiceImpl::toDTO)
+                .toList();
+
+        return Response.<List<PricingRuleDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Pricing rules fetched successfully")
+                .data(rules)
+                .build();
+    }
+
+    // recompile only the affected timelines, then reprice the catalog once and notify the other nodes
+    private void publish(PricingRule savedRule) {
+        pricingEngine.putRule(savedRule);
+        catalogService.pricingRulesChanged();
+    }
+
+    private void apply(PricingRuleDTO pricingRuleDTO, PricingRule pricingRule) {
+        if ((pricingRuleDTO.getMenuId() == null) == (pricingRuleDTO.getCategoryId() == null)) {
+            throw new BadRequestException("Provide either a menu ID or a category ID");
+        }
+        if ((pricingRuleDTO.getPrice() == null) == (pricingRuleDTO.getPercentage() == null)) {
+            throw new BadRequestException("Provide either a price or a percentage");
+        }
+        CatalogSnapshot catalog = catalogService.current();
+        if (pricingRuleDTO.getMenuId() != null && catalog.findMenu(pricingRuleDTO.getMenuId()).isEmpty()) {
+            throw new NotFoundException("Menu not found");
+        }
+        if (pricingRuleDTO.getCategoryId() != null && catalog.findCategory(pricingRuleDTO.getCategoryId()).isEmpty()) {
+            throw new NotFoundException("Category not found");
+        }
+        requireSlotBoundary(pricingRuleDTO.getStartTime());
+        requireSlotBoundary(pricingRuleDTO.getEndTime());
+
+        pricingRule.setName(pricingRuleDTO.getName());
+        pricingRule.setMenuId(pricingRuleDTO.getMenuId());
+        pricingRule.setCategoryId(pricingRuleDTO.getCategoryId());
+        pricingRule.setDaysOfWeek(toMask(pricingRuleDTO.getDays()));
+        pricingRule.setStartTime(pricingRuleDTO.getStartTime());
+        pricingRule.setEndTime(pricingRuleDTO.getEndTime());
+        pricingRule.setPrice(pricingRuleDTO.getPrice());
+        pricingRule.setPercentage(pricingRuleDTO.getPercentage());
+        pricingRule.setPriority(pricingRuleDTO.getPriority());
+        pricingRule.setActive(pricingRuleDTO.getActive() == null || pricingRuleDTO.getActive());
+    }
+
+    private static void requireSlotBoundary(LocalTime time) {
+        if (time.getMinute() % PriceTimeline.SLOT_MINUTES != 0 || time.getSecond() != 0 || time.getNano() != 0) {
+            throw new BadRequestException("Times must be on a " + PriceTimeline.SLOT_MINUTES + " minute boundary");
+        }
+    }
+
+    private static int toMask(Set<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    private static PricingRuleDTO toDTO(PricingRule pricingRule) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((pricingRule.getDaysOfWeek() & (1 << (day.getValue() - 1))) != 0) {
+                days.add(day);
+            }
+        }
+
+        PricingRuleDTO pricingRuleDTO = new PricingRuleDTO();
+        pricingRuleDTO.setId(pricingRule.getId());
+        pricingRuleDTO.setName(pricingRule.getName());
+        pricingRuleDTO.setMenuId(pricingRule.getMenuId());
+        pricingRuleDTO.setCategoryId(pricingRule.getCategoryId());
+        pricingRuleDTO.setDays(days);
+        pricingRuleDTO.setStartTime(pricingRule.getStartTime());
+        pricingRuleDTO.setEndTime(pricingRule.getEndTime());
+        pricingRuleDTO.setPrice(pricingRule.getPrice());
+        pricingRuleDTO.setPercentage(pricingRule.getPercentage());
+        pricingRuleDTO.setPriority(pricingRule.getPriority());
+        pricingRuleDTO.setActive(pricingRule.isActive());
+        return pricingRuleDTO;
+    }
+}
@@ -27,8 +27,10 @@ public class ReviewController {
 
     @GetMapping("/menu-item/{menuId}")
     public ResponseEntity<Response<List<ReviewDTO>>> getReviewsForMenu(
-            @PathVariable Long menuId) {
-        return ResponseEntity.ok(reviewService.getReviewsForMenu(menuId));
+            @PathVariable Long menuId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(reviewService.getReviewsForMenu(menuId, before, limit));
     }
 
     @GetMapping("/menu-item/average/{menuId}")
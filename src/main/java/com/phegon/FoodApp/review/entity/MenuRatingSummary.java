@@ -0,0 +1,43 @@
+package com.phegon.FoodApp.review.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// running rating totals per menu, maintained on review creation and repaired from the reviews nightly
+@Entity
+@Data
+@Table(name = "menu_rating_summaries")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MenuRatingSummary {
+
+    @Id
+    @Column(name = "menu_id")
+    private Long menuId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    // star histogram, ratings 1-10 folded onto 1-5 stars (1-2 = 1 star, ..., 9-10 = 5 stars)
+    @Column(nullable = false)
+    private long star1;
+    @Column(nullable = false)
+    private long star2;
+    @Column(nullable = false)
+    private long star3;
+    @Column(nullable = false)
+    private long star4;
+    @Column(nullable = false)
+    private long star5;
+
+    public static int starsFor(int rating) {
+        return Math.min(5, Math.max(1, (rating + 1) / 2));
+    }
+}
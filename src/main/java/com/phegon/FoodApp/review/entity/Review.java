@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        // newest-first review pages of a menu
+        @Index(name = "idx_reviews_menu_id_id", columnList = "menu_id, id")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
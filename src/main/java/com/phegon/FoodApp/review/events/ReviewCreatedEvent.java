@@ -0,0 +1,16 @@
+package com.phegon.FoodApp.review.events;
+
+import lombok.Getter;
+
+// published inside the review transaction; listeners that update in-memory state wait for the commit
+@Getter
+public class ReviewCreatedEvent {
+
+    private final Long menuId;
+    private final int rating;
+
+    public ReviewCreatedEvent(Long menuId, int rating) {
+        this.menuId = menuId;
+        this.rating = rating;
+    }
+}
@@ -0,0 +1,63 @@
+package com.phegon.FoodApp.review.repository;
+
+import com.phegon.FoodApp.review.entity.MenuRatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface MenuRatingSummaryRepository extends JpaRepository<MenuRatingSummary, Long> {
+
+    // single-statement upsert, concurrent reviews of the same menu cannot lose an increment
+    @Modifying
+    @Query(value = "INSERT INTO menu_rating_summaries (menu_id, review_count, rating_sum, star1, star2, star3, star4, star5) " +
+            "VALUES (:menuId, 1, :rating, :star1, :star2, :star3, :star4, :star5) " +
+            "ON CONFLICT (menu_id) DO UPDATE SET " +
+            "review_count = menu_rating_summaries.review_count + 1, " +
+            "rating_sum = menu_rating_summaries.rating_sum + EXCLUDED.rating_sum, " +
+            "star1 = menu_rating_summaries.star1 + EXCLUDED.star1, " +
+            "star2 = menu_rating_summaries.star2 + EXCLUDED.star2, " +
+            "star3 = menu_rating_summaries.star3 + EXCLUDED.star3, " +
+            "star4 = menu_rating_summaries.star4 + EXCLUDED.star4, " +
+            "star5 = menu_rating_summaries.star5 + EXCLUDED.star5",
+            nativeQuery = true)
+    void addRating(@Param("menuId") Long menuId,
+                   @Param("rating") int rating,
+                   @Param("star1") int star1,
+                   @Param("star2") int star2,
+                   @Param("star3") int star3,
+                   @Param("star4") int star4,
+                   @Param("star5") int star5);
+
+    // transaction-scoped, so the lock is released on commit or rollback
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryLock(@Param("key") long key);
+
+    // waits for review transactions that already upserted, and holds back new upserts until commit
+    @Modifying
+    @Query(value = "LOCK TABLE menu_rating_summaries IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockAgainstUpserts();
+
+    // recomputes every summary from the reviews, the star buckets use the same folding as starsFor
+    @Modifying
+    @Query(value = "INSERT INTO menu_rating_summaries (menu_id, review_count, rating_sum, star1, star2, star3, star4, star5) " +
+            "SELECT r.menu_id, COUNT(*), SUM(r.rating), " +
+            "COUNT(*) FILTER (WHERE r.rating <= 2), " +
+            "COUNT(*) FILTER (WHERE r.rating BETWEEN 3 AND 4), " +
+            "COUNT(*) FILTER (WHERE r.rating BETWEEN 5 AND 6), " +
+            "COUNT(*) FILTER (WHERE r.rating BETWEEN 7 AND 8), " +
+            "COUNT(*) FILTER (WHERE r.rating >= 9) " +
+            "FROM reviews r WHERE r.menu_id IS NOT NULL AND r.rating IS NOT NULL GROUP BY r.menu_id " +
+            "ON CONFLICT (menu_id) DO UPDATE SET " +
+            "review_count = EXCLUDED.review_count, rating_sum = EXCLUDED.rating_sum, " +
+            "star1 = EXCLUDED.star1, star2 = EXCLUDED.star2, star3 = EXCLUDED.star3, " +
+            "star4 = EXCLUDED.star4, star5 = EXCLUDED.star5",
+            nativeQuery = true)
+    int recomputeAll();
+
+    @Modifying
+    @Query(value = "DELETE FROM menu_rating_summaries s " +
+            "WHERE NOT EXISTS (SELECT 1 FROM reviews r WHERE r.menu_id = s.menu_id AND r.rating IS NOT NULL)",
+            nativeQuery = true)
+    int deleteWithoutReviews();
+}
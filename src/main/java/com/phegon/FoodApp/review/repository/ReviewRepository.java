@@ -1,6 +1,8 @@
 package com.phegon.FoodApp.review.repository;
 
+import com.phegon.FoodApp.review.dtos.ReviewDTO;
 import com.phegon.FoodApp.review.entity.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,8 +10,22 @@ import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+
+    // projection straight into the DTO, one join per row instead of the Review -> User entity graph
+    String REVIEW_DTO_SELECT = "SELECT new com.phegon.FoodApp.review.dtos.ReviewDTO(" +
+            "r.id, m.id, r.orderId, u.name, r.rating, r.comment, m.name, r.createdAt) " +
+            "FROM Review r JOIN r.user u JOIN r.menu m ";
+
     List<Review> findByMenuIdOrderByIdDesc(Long menuId);
 
+    @Query(REVIEW_DTO_SELECT + "WHERE m.id = :menuId ORDER BY r.id DESC")
+    List<ReviewDTO> findReviewDTOsByMenuId(@Param("menuId") Long menuId, Limit limit);
+
+    @Query(REVIEW_DTO_SELECT + "WHERE m.id = :menuId AND r.id < :beforeId ORDER BY r.id DESC")
+    List<ReviewDTO> findReviewDTOsByMenuIdBefore(@Param("menuId") Long menuId,
+                                                 @Param("beforeId") Long beforeId,
+                                                 Limit limit);
+
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.menu.id = :menuId")
     Double calculateAverageRatingByMenuId(@Param("menuId") Long menuId);
 
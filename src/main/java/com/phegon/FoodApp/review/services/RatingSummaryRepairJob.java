@@ -0,0 +1,62 @@
+package com.phegon.FoodApp.review.services;
+
+import com.phegon.FoodApp.catalog.services.CatalogService;
+import com.phegon.FoodApp.review.repository.MenuRatingSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recomputes the rating summaries from the reviews table. Runs at startup, which also backfills
+ * the table on first deployment, and nightly to correct any drift from failed or manual writes.
+ * <p>
+ * Every node schedules it, an advisory lock lets one of them run it and the others skip. The
+ * summary table is locked against the review upserts while it runs: reviews whose upsert already
+ * happened are committed before the recompute reads, later ones add their increment after it
+ * commits, so no concurrent review is overwritten.
+ */
+@Component
+@Slf4j
+public class RatingSummaryRepairJob {
+
+    // advisory lock key of this job, "rating" in ASCII
+    private static final long REPAIR_LOCK_KEY = 0x726174696e67L;
+
+    private final MenuRatingSummaryRepository menuRatingSummaryRepository;
+    private final CatalogService catalogService;
+    private final TransactionTemplate transactionTemplate;
+
+    public RatingSummaryRepairJob(MenuRatingSummaryRepository menuRatingSummaryRepository,
+                                  CatalogService catalogService,
+                                  PlatformTransactionManager transactionManager) {
+        this.menuRatingSummaryRepository = menuRatingSummaryRepository;
+        this.catalogService = catalogService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${reviews.rating-summary.repair-cron:0 30 3 * * *}")
+    public void repair() {
+        int[] counts = transactionTemplate.execute(status -> {
+            if (!menuRatingSummaryRepository.tryAdvisoryLock(REPAIR_LOCK_KEY)) {
+                return null;
+            }
+            menuRatingSummaryRepository.lockAgainstUpserts();
+            return new int[]{
+                    menuRatingSummaryRepository.recomputeAll(),
+                    menuRatingSummaryRepository.deleteWithoutReviews()
+            };
+        });
+        if (counts == null) {
+            log.info("Rating summary repair skipped, another node is running it");
+            return;
+        }
+        // reload after the commit so the snapshot serves the repaired numbers
+        catalogService.rebuild();
+        log.info("Rating summaries repaired: {} recomputed, {} removed", counts[0], counts[1]);
+    }
+}
@@ -7,6 +7,6 @@ import java.util.List;
 
 public interface ReviewService {
     Response<ReviewDTO> createReview(ReviewDTO reviewDTO);
-    Response<List<ReviewDTO>> getReviewsForMenu(Long restaurantId);
+    Response<List<ReviewDTO>> getReviewsForMenu(Long menuId, Long before, Integer limit);
     Response<Double> getAverageRating(Long menuId);
 }
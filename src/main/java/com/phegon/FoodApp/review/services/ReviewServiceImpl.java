@@ -2,6 +2,8 @@ package com.phegon.FoodApp.review.services;
 
 import com.phegon.FoodApp.auth_users.entity.User;
 import com.phegon.FoodApp.auth_users.services.UserService;
+import com.phegon.FoodApp.catalog.services.CatalogService;
+import com.phegon.FoodApp.catalog.services.CatalogSnapshot;
 import com.phegon.FoodApp.enums.OrderStatus;
 import com.phegon.FoodApp.exceptions.BadRequestException;
 import com.phegon.FoodApp.exceptions.NotFoundException;
@@ -12,30 +14,46 @@ import com.phegon.FoodApp.order.repository.OrderItemRepository;
 import com.phegon.FoodApp.order.repository.OrderRepository;
 import com.phegon.FoodApp.response.Response;
 import com.phegon.FoodApp.review.dtos.ReviewDTO;
+import com.phegon.FoodApp.review.entity.MenuRatingSummary;
 import com.phegon.FoodApp.review.entity.Review;
+import com.phegon.FoodApp.review.events.ReviewCreatedEvent;
+import com.phegon.FoodApp.review.repository.MenuRatingSummaryRepository;
 import com.phegon.FoodApp.review.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ReviewServiceImpl implements ReviewService {
 
+    public static final String NEXT_REVIEW_CURSOR = "nextReviewCursor";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ReviewRepository reviewRepository;
     private final MenuRepository    menuRepository;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ModelMapper modelMapper;
     private final UserService userService;
+    private final CatalogService catalogService;
+    private final MenuRatingSummaryRepository menuRatingSummaryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public Response<ReviewDTO> createReview(ReviewDTO reviewDTO) {
         log.info("Creating review for menu with ID: {}", reviewDTO.getMenuId());
 
@@ -47,8 +65,8 @@ public class ReviewServiceImpl implements ReviewService {
         }
 
         // validate menu items exists
-        Menu menu = menuRepository.findById(reviewDTO.getOrderId())
-                .orElseThrow(() -> new NotFoundException("Menu with ID " + reviewDTO.getOrderId() + " not found."));
+        Menu menu = menuRepository.findById(reviewDTO.getMenuId())
+                .orElseThrow(() -> new NotFoundException("Menu with ID " + reviewDTO.getMenuId() + " not found."));
 
         // validate order exists
         Order order = orderRepository.findById(reviewDTO.getOrderId())
@@ -95,6 +113,12 @@ public class ReviewServiceImpl implements ReviewService {
 
         Review savedReview = reviewRepository.save(review);
 
+        // keep the rating summary in step with the review, in the same transaction
+        int stars = MenuRatingSummary.starsFor(savedReview.getRating());
+        menuRatingSummaryRepository.addRating(menu.getId(), savedReview.getRating(),
+                stars == 1 ? 1 : 0, stars == 2 ? 1 : 0, stars == 3 ? 1 : 0, stars == 4 ? 1 : 0, stars == 5 ? 1 : 0);
+        eventPublisher.publishEvent(new ReviewCreatedEvent(menu.getId(), savedReview.getRating()));
+
         // return response with review data
         ReviewDTO responseReviewDTO = modelMapper.map(savedReview, ReviewDTO.class);
         responseReviewDTO.setUserName(user.getName());
@@ -108,31 +132,44 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    public Response<List<ReviewDTO>> getReviewsForMenu(Long restaurantId) {
-        log.info("Fetching reviews for menu with ID: {}", restaurantId);
-
-        List<Review> reviews = reviewRepository.findByMenuIdOrderByIdDesc(restaurantId);
+    public Response<List<ReviewDTO>> getReviewsForMenu(Long menuId, Long before, Integer limit) {
+        log.info("Fetching reviews for menu with ID: {} before: {} limit: {}", menuId, before, limit);
+
+        // without paging parameters old clients still get every review
+        if (before == null && limit == null) {
+            return Response.<List<ReviewDTO>>builder()
+                    .statusCode(HttpStatus.OK.value())
+                    .message("Reviews fetched successfully.")
+                    .data(reviewRepository.findReviewDTOsByMenuId(menuId, Limit.unlimited()))
+                    .build();
+        }
 
-        List<ReviewDTO> reviewDTOs = reviews.stream()
-                .map(review -> modelMapper.map(review, ReviewDTO.class))
-                .toList();
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Limit rowLimit = Limit.of(pageSize + 1); // one extra row tells whether there is a next page
+        List<ReviewDTO> rows = before == null
+                ? reviewRepository.findReviewDTOsByMenuId(menuId, rowLimit)
+                : reviewRepository.findReviewDTOsByMenuIdBefore(menuId, before, rowLimit);
+        boolean hasMore = rows.size() > pageSize;
+        List<ReviewDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
 
         return Response.<List<ReviewDTO>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Reviews fetched successfully.")
-                .data(reviewDTOs)
+                .data(page)
+                .meta(hasMore ? Map.<String, Serializable>of(NEXT_REVIEW_CURSOR, page.get(page.size() - 1).getId()) : null)
                 .build();
     }
 
     @Override
     public Response<Double> getAverageRating(Long menuId) {
         log.info("Calculating average rating for menu with ID: {}", menuId);
-        Double averageRating = reviewRepository.calculateAverageRatingByMenuId(menuId);
+        // served from the rating summary in the catalog snapshot instead of AVG over the reviews
+        CatalogSnapshot.RatingSummary rating = catalogService.current().getRating(menuId);
 
         return Response.<Double>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Average rating calculated successfully.")
-                .data(averageRating != null ? averageRating : 0.0)
+                .data(rating.average())
                 .build();
     }
 }
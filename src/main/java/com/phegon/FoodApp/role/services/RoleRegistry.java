@@ -0,0 +1,74 @@
+package com.phegon.FoodApp.role.services;
+
+import com.phegon.FoodApp.role.entity.Role;
+import com.phegon.FoodApp.role.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the roles table, refreshed whenever RoleServiceImpl changes it.
+ * Also hands out one shared, immutable authority list per distinct combination of role names,
+ * so principals don't rebuild their authorities on every authorization check.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoleRegistry {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<String, Role> rolesByName;
+
+    private final ConcurrentHashMap<Set<String>, List<GrantedAuthority>> internedAuthorities = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        rolesByName = roleRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(Role::getName, Function.identity()));
+        log.info("Loaded {} roles into the role registry", rolesByName.size());
+    }
+
+    /**
+     * Returns a detached copy of the role, so callers can attach it to a new user without sharing
+     * the cached instance. Falls back to the database for roles created on another node.
+     */
+    public Optional<Role> findByName(String name) {
+        Map<String, Role> roles = rolesByName;
+        if (roles == null) {
+            refresh();
+            roles = rolesByName;
+        }
+
+        Role role = roles.get(name);
+        if (role == null) {
+            Optional<Role> fromDatabase = roleRepository.findByName(name);
+            fromDatabase.ifPresent(found -> refresh());
+            return fromDatabase;
+        }
+        return Optional.of(Role.builder()
+                .id(role.getId())
+                .name(role.getName())
+                .build());
+    }
+
+    public List<GrantedAuthority> authoritiesFor(Collection<String> roleNames) {
+        return internedAuthorities.computeIfAbsent(Set.copyOf(roleNames), names -> names.stream()
+                .sorted()
+                .map(name -> (GrantedAuthority) new SimpleGrantedAuthority(name))
+                .toList());
+    }
+}
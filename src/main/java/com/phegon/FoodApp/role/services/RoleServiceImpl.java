@@ -1,14 +1,17 @@
 package com.phegon.FoodApp.role.services;
 
+import com.phegon.FoodApp.auth_users.events.UserAuthChangedEvent;
 import com.phegon.FoodApp.exceptions.BadRequestException;
 import com.phegon.FoodApp.exceptions.NotFoundException;
 import com.phegon.FoodApp.response.Response;
 import com.phegon.FoodApp.role.dtos.RoleDTO;
 import com.phegon.FoodApp.role.entity.Role;
 import com.phegon.FoodApp.role.repository.RoleRepository;
+import com.phegon.FoodApp.security.TokenRevocationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -21,10 +24,15 @@ public class RoleServiceImpl implements  RoleService{
 
     private final RoleRepository roleRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final RoleRegistry roleRegistry;
+
     @Override
     public Response<RoleDTO> createRole(RoleDTO roleDTO) {
         Role role = modelMapper.map(roleDTO, Role.class);
         Role savedRole = roleRepository.save(role);
+        roleRegistry.refresh();
 
         return Response.<RoleDTO>builder()
                 .statusCode(HttpStatus.OK.value())
@@ -42,6 +50,10 @@ public class RoleServiceImpl implements  RoleService{
         }
         existingRole.setName(roleDTO.getName());
         Role updatedRole = roleRepository.save(existingRole);
+        roleRegistry.refresh();
+        // role names are part of every cached principal's authorities and of issued tokens
+        eventPublisher.publishEvent(UserAuthChangedEvent.forAllUsers());
+        tokenRevocationRegistry.revokeTokensForRole(updatedRole.getId());
 
         return Response.<RoleDTO>builder()
                 .statusCode(HttpStatus.OK.value())
@@ -71,7 +83,10 @@ public class RoleServiceImpl implements  RoleService{
         if (!roleRepository.existsById(id)){
             throw new NotFoundException("Role not found");
         }
+        tokenRevocationRegistry.revokeTokensForRole(id);
         roleRepository.deleteById(id);
+        roleRegistry.refresh();
+        eventPublisher.publishEvent(UserAuthChangedEvent.forAllUsers());
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Role deleted successfully")
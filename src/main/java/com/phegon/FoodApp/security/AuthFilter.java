@@ -1,12 +1,16 @@
 package com.phegon.FoodApp.security;
 
+import com.phegon.FoodApp.auth_users.entity.User;
 import com.phegon.FoodApp.exceptions.CustomAuthenticationEntryPoint;
+import com.phegon.FoodApp.role.entity.Role;
+import com.phegon.FoodApp.role.services.RoleRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
@@ -18,6 +22,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -27,7 +32,12 @@ public class AuthFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
     private final CustomUserDetailsService customUserDetailsService;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final RoleRegistry roleRegistry;
 
+    // when enabled, tokens carrying identity claims are trusted without loading the user from the database
+    @Value("${auth.stateless.enabled:false}")
+    private boolean statelessAuth;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -35,19 +45,28 @@ public class AuthFilter extends OncePerRequestFilter {
         String token = getTokenFromRequest(request);
 
         if (token != null) {
-            String email;
+            VerifiedClaims claims;
 
             try {
-                email = jwtUtils.getEmailFromToken(token);
+                claims = jwtUtils.verify(token); // single signature check for the whole request
             } catch (Exception e) {
                 AuthenticationException authException = new BadCredentialsException(e.getMessage());
                 customAuthenticationEntryPoint.commence(request, response, authException);
                 return; // Stop further processing if token is invalid
             }
 
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
+            if (tokenRevocationRegistry.isRevoked(claims.getUserId(), claims.getTokenVersion())) {
+                customAuthenticationEntryPoint.commence(request, response,
+                        new BadCredentialsException("Token has been revoked"));
+                return;
+            }
+
+            String email = claims.getSubject();
+            UserDetails userDetails = statelessAuth && claims.hasIdentityClaims()
+                    ? buildUserFromClaims(claims)
+                    : customUserDetailsService.loadUserByUsername(email);
 
-            if (StringUtils.hasText(email) && jwtUtils.isTokenValid(token, userDetails)) {
+            if (StringUtils.hasText(email) && jwtUtils.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
@@ -65,6 +84,24 @@ public class AuthFilter extends OncePerRequestFilter {
         }
     }
 
+    // principal rebuilt from the signed claims alone, it only carries what the token vouches for
+    private UserDetails buildUserFromClaims(VerifiedClaims claims) {
+        List<Role> roles = claims.getRoles().stream()
+                .map(roleName -> Role.builder().name(roleName).build())
+                .toList();
+        User user = User.builder()
+                .id(claims.getUserId())
+                .email(claims.getSubject())
+                .roles(roles)
+                .tokenVersion(claims.getTokenVersion())
+                .isActive(true) // deactivation bumps the token version, so a non-revoked token means active
+                .build();
+        return AuthUser.builder()
+                .user(user)
+                .authorities(roleRegistry.authoritiesFor(claims.getRoles()))
+                .build();
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String header = request.getHeader("Authorization");
         if (header != null && header.startsWith("Bearer ")) {
@@ -16,8 +16,14 @@ public class AuthUser implements UserDetails {
 
     private User user;
 
+    // shared immutable list from RoleRegistry, set when the principal is built
+    private List<GrantedAuthority> authorities;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (authorities != null) {
+            return authorities;
+        }
         return user.getRoles()
                 .stream()
                 .map(role -> new SimpleGrantedAuthority(role.getName()))
@@ -0,0 +1,51 @@
+package com.phegon.FoodApp.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Picks the BCrypt work factor for this machine: the highest strength whose hash time stays within
+ * the latency target, never below the configured minimum. Each strength step doubles the cost, so
+ * measuring stops as soon as the next step is expected to overshoot the target.
+ */
+@Slf4j
+public final class BCryptStrengthCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Passw0rd!";
+    private static final int SAMPLES_PER_STRENGTH = 3;
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        int selected = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            long millis = medianHashMillis(strength);
+            log.info("BCrypt strength {} takes ~{} ms on this host", strength, millis);
+
+            if (millis > targetMillis) {
+                break;
+            }
+            selected = strength;
+            if (millis * 2 > targetMillis) {
+                break; // the next strength would take twice as long
+            }
+        }
+        log.info("Using BCrypt strength {} for a {} ms target", selected, targetMillis);
+        return selected;
+    }
+
+    private static long medianHashMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long[] samples = new long[SAMPLES_PER_STRENGTH];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+}
@@ -1,27 +1,78 @@
 package com.phegon.FoodApp.security;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.phegon.FoodApp.auth_users.entity.User;
+import com.phegon.FoodApp.auth_users.events.UserAuthChangedEvent;
 import com.phegon.FoodApp.auth_users.repository.UserRepository;
 import com.phegon.FoodApp.exceptions.NotFoundException;
+import com.phegon.FoodApp.role.entity.Role;
+import com.phegon.FoodApp.role.services.RoleRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final RoleRegistry roleRegistry;
+
+    @Value("${auth.principal-cache.max-size:10000}")
+    private long principalCacheMaxSize;
+
+    @Value("${auth.principal-cache.ttl:5m}")
+    private Duration principalCacheTtl;
+
+    // principals keyed by email, so the auth filter does not hit the users table on every request
+    private Cache<String, AuthUser> principalCache;
+
+    @PostConstruct
+    private void init() {
+        principalCache = Caffeine.newBuilder()
+                .maximumSize(principalCacheMaxSize)
+                .expireAfterWrite(principalCacheTtl)
+                .recordStats()
+                .build();
+        // exposes cache.gets{result=hit|miss}, cache.evictions and cache.size under cache=authPrincipals
+        CaffeineCacheMetrics.monitor(meterRegistry, principalCache, "authPrincipals");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new NotFoundException(("User with email " + username + " not found.")));
+        return principalCache.get(username, this::loadAuthUser);
+    }
+
+    @EventListener
+    public void onUserAuthChanged(UserAuthChangedEvent event) {
+        if (event.isAllUsers()) {
+            log.info("Evicting all cached principals");
+            principalCache.invalidateAll();
+        } else {
+            principalCache.invalidateAll(event.getEmails());
+        }
+    }
+
+    private AuthUser loadAuthUser(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new NotFoundException(("User with email " + email + " not found.")));
         return AuthUser.builder()
                 .user(user)
+                .authorities(roleRegistry.authoritiesFor(user.getRoles().stream().map(Role::getName).toList()))
                 .build();
     }
 }
@@ -1,7 +1,13 @@
 package com.phegon.FoodApp.security;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.phegon.FoodApp.auth_users.entity.User;
+import com.phegon.FoodApp.role.entity.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
@@ -12,23 +18,64 @@ import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HexFormat;
+import java.util.List;
 
 // slf4j is a logging framework that provides a simple facade for various logging frameworks
 @Service
 @Slf4j
 public class JwtUtils {
     private  static final long EXPIRATION_TIME = 30L * 24 * 60 * 60 * 1000; // 30days  in milliseconds
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
     private SecretKey key;
 
+    // the parser is immutable and thread-safe, so build it once instead of on every call
+    private JwtParser jwtParser;
+
+    // verified claims keyed by the SHA-256 of the token, each entry expires together with its token
+    private Cache<String, VerifiedClaims> verifiedClaimsCache;
+
     @Value("${secretJwtString}")
     private String secretJwtString;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
     @PostConstruct
     private void init() {
         byte[] keyByte = secretJwtString.getBytes(StandardCharsets.UTF_8);
         this.key = new SecretKeySpec(keyByte, "HmacSHA256");
+        this.jwtParser = Jwts.parser().verifyWith(key).build();
+        this.verifiedClaimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedClaims>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, VerifiedClaims claims, long currentTime) {
+                        if (claims.getExpiresAt() == null) {
+                            return 0; // never cache tokens without an expiry
+                        }
+                        return Math.max(0, Duration.between(Instant.now(), claims.getExpiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, VerifiedClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, VerifiedClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String email) {
@@ -40,21 +87,80 @@ public class JwtUtils {
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        return extractClaim(token, Claims::getSubject);
+    // embeds id, role names and token version so the stateless auth mode can skip the user lookup
+    public String generateToken(User user) {
+        List<String> roleNames = user.getRoles().stream()
+                .map(Role::getName)
+                .toList();
+        return Jwts.builder()
+                .subject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLES, roleNames)
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Verifies the token signature and expiry once and returns its claims. Tokens that were already
+     * verified are served from the cache without repeating the HMAC check.
+     * Throws a JwtException if the token is malformed, tampered with or expired.
+     */
+    public VerifiedClaims verify(String token) {
+        String tokenHash = hashToken(token);
+        VerifiedClaims cached = verifiedClaimsCache.getIfPresent(tokenHash);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        VerifiedClaims verifiedClaims = new VerifiedClaims(
+                claims.getSubject(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                claims.get(CLAIM_USER_ID, Long.class),
+                readRoles(claims),
+                claims.get(CLAIM_TOKEN_VERSION, Long.class)
+        );
+        verifiedClaimsCache.put(tokenHash, verifiedClaims);
+        return verifiedClaims;
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsTFunction) {
-        return  claimsTFunction.apply(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
+    public String getEmailFromToken(String token) {
+        return verify(token).getSubject();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = getEmailFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(verify(token), userDetails);
+    }
+
+    public boolean isTokenValid(VerifiedClaims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.isExpired();
+    }
+
+    private String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static List<String> readRoles(Claims claims) {
+        Object roles = claims.get(CLAIM_ROLES);
+        if (!(roles instanceof List<?> roleList)) {
+            return List.of();
+        }
+        return roleList.stream()
+                .map(String::valueOf)
+                .toList();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
     }
 
 }
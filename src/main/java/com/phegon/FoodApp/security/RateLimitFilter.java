@@ -0,0 +1,141 @@
+package com.phegon.FoodApp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.phegon.FoodApp.response.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-client throttling for login/registration, cart mutations and checkout. Runs right after
+ * AuthFilter so authenticated clients are keyed by user id and anonymous ones by IP address.
+ * Buckets live in a size-bounded cache and are dropped once idle, so memory stays flat no matter
+ * how many distinct clients show up.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    enum RouteGroup {
+        AUTH, CART, CHECKOUT;
+
+        String propertyPrefix() {
+            return "ratelimit." + name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record Limit(int capacity, double refillPerNano) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<RouteGroup, Limit> limits = new EnumMap<>(RouteGroup.class);
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry, Environment environment) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = environment.getProperty("ratelimit.enabled", Boolean.class, true);
+
+        for (RouteGroup group : RouteGroup.values()) {
+            int capacity = environment.getProperty(group.propertyPrefix() + ".capacity", Integer.class, 20);
+            int refillPerMinute = environment.getProperty(group.propertyPrefix() + ".refill-per-minute", Integer.class, 20);
+            limits.put(group, new Limit(capacity, refillPerMinute / (double) Duration.ofMinutes(1).toNanos()));
+        }
+
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(environment.getProperty("ratelimit.max-buckets", Long.class, 100_000L))
+                .expireAfterAccess(environment.getProperty("ratelimit.idle-timeout", Duration.class, Duration.ofMinutes(10)))
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteGroup group = enabled ? resolveGroup(request) : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Limit limit = limits.get(group);
+        String key = group.name() + ":" + clientKey(request);
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(limit.capacity()));
+        double remaining = bucket.tryConsume(limit.capacity(), limit.refillPerNano());
+
+        response.setHeader("RateLimit-Limit", String.valueOf(limit.capacity()));
+        if (remaining >= 0) {
+            long secondsUntilFull = secondsFor(limit.capacity() - remaining, limit);
+            response.setHeader("RateLimit-Remaining", String.valueOf((long) remaining));
+            response.setHeader("RateLimit-Reset", String.valueOf(secondsUntilFull));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = Math.max(1, secondsFor(-remaining, limit));
+        response.setHeader("RateLimit-Remaining", "0");
+        response.setHeader("RateLimit-Reset", String.valueOf(retryAfter));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        meterRegistry.counter("foodapp.ratelimit.rejected", "group", group.name()).increment();
+        log.warn("Rate limit exceeded for {} on {}", key, request.getRequestURI());
+
+        Response<?> errorResponse = Response.builder()
+                .statusCode(HttpStatus.TOO_MANY_REQUESTS.value())
+                .message("Too many requests, please retry in " + retryAfter + " seconds")
+                .build();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+
+    private RouteGroup resolveGroup(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+
+        if (path.startsWith("/api/v1/auth/") && HttpMethod.POST.matches(method)) {
+            return RouteGroup.AUTH;
+        }
+        if (path.equals("/api/v1/orders/checkout")) {
+            return RouteGroup.CHECKOUT;
+        }
+        if (path.startsWith("/api/v1/cart") && !HttpMethod.GET.matches(method)) {
+            return RouteGroup.CART;
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthUser authUser
+                && authUser.getUser().getId() != null) {
+            return "user:" + authUser.getUser().getId();
+        }
+        // the client address resolved from X-Forwarded-For by server.forward-headers-strategy
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static long secondsFor(double tokens, Limit limit) {
+        return (long) Math.ceil(tokens / limit.refillPerNano() / 1_000_000_000d);
+    }
+}
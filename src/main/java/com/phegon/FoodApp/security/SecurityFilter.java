@@ -4,6 +4,7 @@ package com.phegon.FoodApp.security;
 import com.phegon.FoodApp.exceptions.CustomAccessDenialHandler;
 import com.phegon.FoodApp.exceptions.CustomAuthenticationEntryPoint;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,9 +26,23 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityFilter {
     private final AuthFilter authFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final CustomAccessDenialHandler customAccessDenialHandler;
     private  final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
 
+    // fixed BCrypt strength, 0 means calibrate against the latency target at startup
+    @Value("${auth.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${auth.bcrypt.target-ms:250}")
+    private long bcryptTargetMillis;
+
+    @Value("${auth.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${auth.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
         httpSecurity.csrf(AbstractHttpConfigurer::disable)
@@ -37,20 +52,27 @@ public class SecurityFilter {
                                 .accessDeniedHandler(customAccessDenialHandler)
                                 .authenticationEntryPoint(customAuthenticationEntryPoint)
 
-                ).authorizeHttpRequests(req-> req.requestMatchers("/api/v1/auth/**", "/api/v1/categories/**",
+                ).authorizeHttpRequests(req-> req
+                        // cache, pool and rate limit internals are for operators only
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasAuthority("ADMIN")
+                        .requestMatchers("/api/v1/auth/**", "/api/v1/categories/**",
                                 "/api/v1/menus/**", "/api/v1/reviews/**","/api/v1/aws/upload",
-                                "/api/v1/roles/**", "/api/v1/reviews/**")
+                                "/api/v1/roles/**", "/api/v1/reviews/**", "/api/v1/images/**")
                         .permitAll()
                         .anyRequest().authenticated())
                 .sessionManagement(mag -> mag.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(authFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(authFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, AuthFilter.class);
 
         return httpSecurity.build();
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : BCryptStrengthCalibrator.calibrate(bcryptTargetMillis, bcryptMinStrength, bcryptMaxStrength);
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -0,0 +1,32 @@
+package com.phegon.FoodApp.security;
+
+/**
+ * Token bucket with lazy refill. Each bucket is its own lock, so contention only happens between
+ * requests of the same client. Kept to two primitive fields to stay small when many are live.
+ */
+final class TokenBucket {
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(int capacity) {
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes one token if available and returns the tokens left. When the bucket is empty nothing is
+     * taken and the result is negative: minus the fraction of a token still missing.
+     */
+    synchronized double tryConsume(int capacity, double refillPerNano) {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+
+        if (tokens < 1) {
+            return tokens - 1;
+        }
+        tokens -= 1;
+        return tokens;
+    }
+}
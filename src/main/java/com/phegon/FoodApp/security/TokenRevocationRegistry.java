@@ -0,0 +1,126 @@
+package com.phegon.FoodApp.security;
+
+import com.phegon.FoodApp.auth_users.entity.User;
+import com.phegon.FoodApp.auth_users.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of userId -> minimum valid token version, used by the stateless auth mode
+ * to reject revoked tokens without a database lookup. Only users that were revoked at least once
+ * are stored, everybody else implicitly has a minimum version of 0.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationRegistry {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final UserRepository userRepository;
+
+    private final ConcurrentHashMap<Long, Long> minTokenVersions = new ConcurrentHashMap<>();
+
+    // high-water mark of users.updated_at already applied, used for incremental refreshes
+    private volatile LocalDateTime lastSeenUpdate = LocalDateTime.MIN;
+
+    @Value("${auth.stateless.enabled:false}")
+    private boolean statelessEnabled;
+
+    // updated_at is stamped by the app node before commit, so a transaction stamped earlier can
+    // commit after the mark has moved past it (or on a node whose clock lags). Each refresh re-scans
+    // this window behind the mark; re-applying a version is idempotent.
+    @Value("${auth.stateless.revocation-overlap:5m}")
+    private Duration revocationOverlap;
+
+    public boolean isRevoked(Long userId, Long tokenVersion) {
+        if (userId == null) {
+            return false;
+        }
+        long presented = tokenVersion != null ? tokenVersion : 0L;
+        return presented < minTokenVersions.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Invalidates every token issued to the user so far. The caller is responsible for saving the user.
+     */
+    public void revokeTokens(User user) {
+        long newVersion = user.getTokenVersion() + 1;
+        user.setTokenVersion(newVersion);
+        user.setUpdatedAt(LocalDateTime.now());
+        minTokenVersions.merge(user.getId(), newVersion, Math::max);
+        log.info("Revoked tokens of user {} below version {}", user.getId(), newVersion);
+    }
+
+    /**
+     * Invalidates the tokens of every user holding the role, since their tokens embed its name.
+     */
+    public void revokeTokensForRole(Long roleId) {
+        int updated = userRepository.incrementTokenVersionForRole(roleId, LocalDateTime.now());
+        log.info("Revoked tokens of {} users holding role {}", updated, roleId);
+        if (statelessEnabled) {
+            refreshChanges();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        LocalDateTime loadStartedAt = LocalDateTime.now();
+        long afterId = 0L;
+        int loaded = 0;
+        List<Object[]> page;
+        do {
+            page = userRepository.findRevokedTokenVersions(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Object[] row : page) {
+                Long userId = (Long) row[0];
+                minTokenVersions.merge(userId, (Long) row[1], Math::max);
+                afterId = userId;
+            }
+            loaded += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+
+        lastSeenUpdate = loadStartedAt;
+        log.info("Loaded {} token revocation entries", loaded);
+    }
+
+    // picks up revocations made by other API nodes since the last refresh
+    @Scheduled(fixedDelayString = "${auth.stateless.revocation-refresh-ms:30000}",
+            initialDelayString = "${auth.stateless.revocation-refresh-ms:30000}")
+    public void refreshChangesIfEnabled() {
+        if (statelessEnabled) {
+            refreshChanges();
+        }
+    }
+
+    public synchronized void refreshChanges() {
+        LocalDateTime since = lastSeenUpdate;
+        LocalDateTime scanFrom = since.equals(LocalDateTime.MIN) ? since : since.minus(revocationOverlap);
+        for (Object[] row : userRepository.findTokenVersionsUpdatedSince(scanFrom)) {
+            Long userId = (Long) row[0];
+            Long tokenVersion = (Long) row[1];
+            if (tokenVersion > 0) {
+                minTokenVersions.merge(userId, tokenVersion, Math::max);
+            }
+            LocalDateTime updatedAt = (LocalDateTime) row[2];
+            if (updatedAt.isAfter(since)) {
+                since = updatedAt;
+            }
+        }
+        lastSeenUpdate = since;
+    }
+
+    public int size() {
+        return minTokenVersions.size();
+    }
+}
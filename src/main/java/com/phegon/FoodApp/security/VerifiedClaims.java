@@ -0,0 +1,28 @@
+package com.phegon.FoodApp.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+// immutable result of a single signature check, safe to share between requests through the claims cache
+@Value
+public class VerifiedClaims {
+
+    String subject; // the user's email
+    Instant issuedAt;
+    Instant expiresAt;
+
+    // identity claims used by the stateless auth mode, null/empty on tokens issued before they existed
+    Long userId;
+    List<String> roles;
+    Long tokenVersion;
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+
+    public boolean hasIdentityClaims() {
+        return userId != null && tokenVersion != null;
+    }
+}
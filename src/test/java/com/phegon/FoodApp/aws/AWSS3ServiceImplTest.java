@@ -0,0 +1,160 @@
+package com.phegon.FoodApp.aws;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uploads against a minimal S3-compatible stand-in on localhost and measures the bytes the uploading
+ * thread allocates, which bounds the heap an upload can hold.
+ */
+class AWSS3ServiceImplTest {
+
+    private static final long MB = DataSize.ofMegabytes(1).toBytes();
+
+    private HttpServer server;
+    private S3Client s3Client;
+    private AWSS3ServiceImpl awsS3Service;
+
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicInteger partsReceived = new AtomicInteger();
+    private final AtomicInteger putsReceived = new AtomicInteger();
+
+    @BeforeEach
+    void startStandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        s3Client = S3Client.builder()
+                .endpointOverride(URI.create("http://localhost:" + server.getAddress().getPort()))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .forcePathStyle(true)
+                // plain bodies, so the stand-in sees exactly the file bytes
+                .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED)
+                .serviceConfiguration(S3Configuration.builder().chunkedEncodingEnabled(false).build())
+                .build();
+        // the async client and the delete queue are not used by the synchronous uploads
+        awsS3Service = new AWSS3ServiceImpl(s3Client, null, null, "menus",
+                DataSize.ofMegabytes(16), DataSize.ofMegabytes(8), 1);
+    }
+
+    @AfterEach
+    void stopStandIn() {
+        awsS3Service.shutdown();
+        s3Client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void smallFileIsStreamedInOnePut() {
+        MockMultipartFile file = image(12 * MB);
+        awsS3Service.uploadFile("warm-up.jpg", image(MB)); // class loading and client setup
+        resetCounters();
+
+        long allocated = allocatedDuring(() -> awsS3Service.uploadFile("small.jpg", file));
+
+        assertEquals(1, putsReceived.get());
+        assertEquals(0, partsReceived.get());
+        assertEquals(file.getSize(), bytesReceived.get());
+        // reading the file into a byte array would allocate at least its size
+        assertTrue(allocated < 2 * MB, "allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void largeFileIsUploadedInPartsThroughOneBuffer() {
+        MockMultipartFile file = image(48 * MB);
+        // the first multipart upload sets up the SDK's multipart operations, around 5 MB once per client
+        awsS3Service.uploadFile("warm-up.jpg", image(17 * MB));
+        resetCounters();
+
+        long allocated = allocatedDuring(() -> awsS3Service.uploadFile("large.jpg", file));
+
+        assertEquals(6, partsReceived.get());
+        assertEquals(file.getSize(), bytesReceived.get());
+        // one 8 MB part buffer plus the SDK's request objects (under 100 kB per part), a copy of any
+        // part or of the file would not fit
+        assertTrue(allocated < 10 * MB, "allocated " + allocated + " bytes");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String query = exchange.getRequestURI().getRawQuery();
+        query = query == null ? "" : query;
+
+        long received;
+        try (InputStream body = exchange.getRequestBody()) {
+            received = body.transferTo(OutputStream.nullOutputStream());
+        }
+
+        if ("PUT".equals(method)) {
+            bytesReceived.addAndGet(received);
+            if (query.contains("partNumber=")) {
+                partsReceived.incrementAndGet();
+            } else {
+                putsReceived.incrementAndGet();
+            }
+            exchange.getResponseHeaders().add("ETag", "\"etag\"");
+            exchange.sendResponseHeaders(200, -1);
+        } else if ("POST".equals(method) && query.contains("uploads")) {
+            respondXml(exchange, "<InitiateMultipartUploadResult><Bucket>menus</Bucket><Key>large.jpg</Key>"
+                    + "<UploadId>upload-1</UploadId></InitiateMultipartUploadResult>");
+        } else if ("POST".equals(method)) {
+            respondXml(exchange, "<CompleteMultipartUploadResult><Bucket>menus</Bucket><Key>large.jpg</Key>"
+                    + "<ETag>\"etag\"</ETag></CompleteMultipartUploadResult>");
+        } else {
+            exchange.sendResponseHeaders(204, -1);
+        }
+        exchange.close();
+    }
+
+    private static void respondXml(HttpExchange exchange, String xml) throws IOException {
+        byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private void resetCounters() {
+        bytesReceived.set(0);
+        partsReceived.set(0);
+        putsReceived.set(0);
+    }
+
+    private static MockMultipartFile image(long size) {
+        return new MockMultipartFile("imageFile", "photo.jpg", "image/jpeg", new byte[(int) size]);
+    }
+
+    private static long allocatedDuring(Runnable upload) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        upload.run();
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+}
@@ -0,0 +1,161 @@
+package com.phegon.FoodApp.catalog.services;
+
+import com.phegon.FoodApp.catalog.repository.CatalogRevisionRepository;
+import com.phegon.FoodApp.category.dtos.CategoryDTO;
+import com.phegon.FoodApp.category.entity.Category;
+import com.phegon.FoodApp.category.repository.CategoryRepository;
+import com.phegon.FoodApp.menu.entity.Menu;
+import com.phegon.FoodApp.menu.repository.MenuRepository;
+import com.phegon.FoodApp.pricing.services.PricingEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Builds the category listing through {@link CatalogService#rebuild()} against H2 and counts the
+ * statements it prepares. Not transactional, the revision bump runs in its own transaction.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CatalogService.class, PricingEngine.class, CatalogServiceTest.Metrics.class})
+class CatalogServiceTest {
+
+    // revision bump and read, pricing rules, category summaries, rating summaries, menus with their category
+    private static final long REBUILD_STATEMENTS = 6;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private CatalogRevisionRepository catalogRevisionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void createRevision() {
+        catalogService.syncWithDatabase();
+    }
+
+    @AfterEach
+    void deleteCatalog() {
+        menuRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void rebuildUsesTheSameStatementsWhateverTheCategoryCount() {
+        assertEquals(REBUILD_STATEMENTS, statementsToRebuild(3));
+        assertEquals(3, catalogService.current().getCategories().size());
+
+        assertEquals(REBUILD_STATEMENTS, statementsToRebuild(40));
+        assertEquals(43, catalogService.current().getCategories().size());
+    }
+
+    @Test
+    void rebuiltCategoriesCarryTheirMenuStats() {
+        saveCategory("Drinks", "1.50", "4.00", "2.25");
+
+        catalogService.rebuild();
+
+        CategoryDTO drinks = catalogService.current().getCategories().get(0);
+        assertEquals(3L, drinks.getMenuCount());
+        assertEquals(0, new BigDecimal("1.50").compareTo(drinks.getMinPrice()));
+        assertEquals(0, new BigDecimal("4.00").compareTo(drinks.getMaxPrice()));
+    }
+
+    @Test
+    void snapshotMatchesTheSharedRevisionUnlessAnotherNodeWroteInBetween() {
+        catalogService.rebuild();
+        long revision = sharedRevision();
+        assertEquals(revision, catalogService.current().getRevision());
+
+        catalogService.putCategory(saveCategory("Soups"));
+        assertEquals(revision + 1, catalogService.current().getRevision());
+
+        // a write of another node, this node's next write cannot claim the revision after it
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> catalogRevisionRepository.increment());
+        catalogService.putCategory(saveCategory("Salads"));
+        assertEquals(-1, catalogService.current().getRevision());
+
+        catalogService.syncWithDatabase();
+        assertEquals(revision + 3, catalogService.current().getRevision());
+        assertEquals(2, catalogService.current().getCategories().size());
+    }
+
+    private long sharedRevision() {
+        return catalogRevisionRepository.findRevision().orElseThrow();
+    }
+
+    private long statementsToRebuild(int additionalCategories) {
+        for (int i = 0; i < additionalCategories; i++) {
+            saveCategory("Category " + additionalCategories + "-" + i, "3.00", "5.00");
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        catalogService.rebuild();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Category saveCategory(String name, String... prices) {
+        Category category = categoryRepository.save(Category.builder().name(name).description(name).build());
+        List<Menu> menus = new ArrayList<>();
+        for (String price : prices) {
+            menus.add(Menu.builder()
+                    .name(name + " " + price)
+                    .price(new BigDecimal(price))
+                    .category(category)
+                    .build());
+        }
+        menuRepository.saveAll(menus);
+        return category;
+    }
+}
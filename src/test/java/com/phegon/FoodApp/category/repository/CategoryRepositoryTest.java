@@ -0,0 +1,94 @@
+package com.phegon.FoodApp.category.repository;
+
+import com.phegon.FoodApp.category.dtos.CategoryDTO;
+import com.phegon.FoodApp.category.entity.Category;
+import com.phegon.FoodApp.menu.entity.Menu;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:categories;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CategoryRepositoryTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void summariesAggregateMenusPerCategory() {
+        Category drinks = persistCategory("Drinks", "1.50", "4.00", "2.25");
+        Category empty = persistCategory("Empty");
+        entityManager.clear();
+
+        List<CategoryDTO> summaries = categoryRepository.findCategorySummaries();
+
+        assertEquals(2, summaries.size());
+        CategoryDTO drinksSummary = summaries.get(0);
+        assertEquals(drinks.getId(), drinksSummary.getId());
+        assertEquals(3L, drinksSummary.getMenuCount());
+        assertEquals(0, new BigDecimal("1.50").compareTo(drinksSummary.getMinPrice()));
+        assertEquals(0, new BigDecimal("4.00").compareTo(drinksSummary.getMaxPrice()));
+
+        CategoryDTO emptySummary = summaries.get(1);
+        assertEquals(empty.getId(), emptySummary.getId());
+        assertEquals(0L, emptySummary.getMenuCount());
+        assertNull(emptySummary.getMinPrice());
+        assertNull(emptySummary.getMaxPrice());
+    }
+
+    @Test
+    void summariesUseOneStatementWhateverTheCategoryCount() {
+        assertEquals(1, statementsToLoadSummaries(3));
+        assertEquals(1, statementsToLoadSummaries(40));
+    }
+
+    private long statementsToLoadSummaries(int additionalCategories) {
+        for (int i = 0; i < additionalCategories; i++) {
+            persistCategory("Category " + additionalCategories + "-" + i, "3.00", "5.00");
+        }
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        categoryRepository.findCategorySummaries();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Category persistCategory(String name, String... prices) {
+        Category category = entityManager.persist(Category.builder().name(name).description(name).build());
+        for (String price : prices) {
+            entityManager.persist(Menu.builder()
+                    .name(name + " " + price)
+                    .price(new BigDecimal(price))
+                    .category(category)
+                    .build());
+        }
+        entityManager.flush();
+        return category;
+    }
+}
@@ -0,0 +1,66 @@
+package com.phegon.FoodApp.menu.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasAndEscapedQuotes() throws IOException {
+        CsvRecordReader reader = reader("name,description\n\"Fish, chips\",\"The \"\"classic\"\"\"\n");
+
+        assertEquals(List.of("name", "description"), reader.next());
+        assertEquals(List.of("Fish, chips", "The \"classic\""), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void crlfEndsRecordsAndEmptyFieldsAreKept() throws IOException {
+        CsvRecordReader reader = reader("a,b,c\r\n1,,3\r\n,,\r\n");
+
+        assertEquals(List.of("a", "b", "c"), reader.next());
+        assertEquals(List.of("1", "", "3"), reader.next());
+        assertEquals(List.of("", "", ""), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void lastRecordNeedsNoLineBreak() throws IOException {
+        CsvRecordReader reader = reader("a,b\n1,2");
+
+        reader.next();
+        assertEquals(List.of("1", "2"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void embeddedLineBreaksCountTowardsLineNumbers() throws IOException {
+        CsvRecordReader reader = reader("name,description\n\"Soup\",\"Hot\nand\r\nfresh\"\nSalad,Cold\n");
+
+        reader.next();
+        assertEquals(1, reader.recordLine());
+        assertEquals(List.of("Soup", "Hot\nand\r\nfresh"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertEquals(List.of("Salad", "Cold"), reader.next());
+        assertEquals(5, reader.recordLine());
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() throws IOException {
+        CsvRecordReader reader = reader("name\n\"Soup\n");
+
+        reader.next();
+        assertThrows(IOException.class, reader::next);
+    }
+
+    private static CsvRecordReader reader(String csv) {
+        return new CsvRecordReader(new StringReader(csv));
+    }
+}
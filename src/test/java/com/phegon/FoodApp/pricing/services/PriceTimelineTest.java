@@ -0,0 +1,129 @@
+package com.phegon.FoodApp.pricing.services;
+
+import com.phegon.FoodApp.pricing.entity.PricingRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PriceTimelineTest {
+
+    private static final BigDecimal BASE_PRICE = new BigDecimal("10.00");
+
+    @Test
+    void overnightWindowRunsIntoTheNextDay() {
+        PriceTimeline timeline = PriceTimeline.compile(List.of(
+                rule(1L, DayOfWeek.FRIDAY, "22:00", "02:00", "5.00", 0)));
+
+        assertPrice(null, timeline, DayOfWeek.FRIDAY, "21:45");
+        assertPrice("5.00", timeline, DayOfWeek.FRIDAY, "22:00");
+        assertPrice("5.00", timeline, DayOfWeek.SATURDAY, "01:45");
+        assertPrice(null, timeline, DayOfWeek.SATURDAY, "02:00");
+        // only Friday night, not the night into Friday
+        assertPrice(null, timeline, DayOfWeek.FRIDAY, "01:00");
+    }
+
+    @Test
+    void sundayNightWrapsToMondayMorning() {
+        PriceTimeline timeline = PriceTimeline.compile(List.of(
+                rule(1L, DayOfWeek.SUNDAY, "23:00", "01:00", "5.00", 0)));
+
+        assertPrice("5.00", timeline, DayOfWeek.SUNDAY, "23:45");
+        assertPrice("5.00", timeline, DayOfWeek.MONDAY, "00:00");
+        assertPrice("5.00", timeline, DayOfWeek.MONDAY, "00:45");
+        assertPrice(null, timeline, DayOfWeek.MONDAY, "01:00");
+        assertPrice(null, timeline, DayOfWeek.SUNDAY, "22:45");
+    }
+
+    @Test
+    void equalStartAndEndCoverAFullDay() {
+        PriceTimeline timeline = PriceTimeline.compile(List.of(
+                rule(1L, DayOfWeek.TUESDAY, "06:00", "06:00", "5.00", 0)));
+
+        assertPrice(null, timeline, DayOfWeek.TUESDAY, "05:45");
+        assertPrice("5.00", timeline, DayOfWeek.TUESDAY, "06:00");
+        assertPrice("5.00", timeline, DayOfWeek.TUESDAY, "23:45");
+        assertPrice("5.00", timeline, DayOfWeek.WEDNESDAY, "05:45");
+        assertPrice(null, timeline, DayOfWeek.WEDNESDAY, "06:00");
+    }
+
+    @Test
+    void highestPriorityWinsWhateverTheRuleOrder() {
+        PricingRule low = rule(1L, DayOfWeek.MONDAY, "10:00", "14:00", "5.00", 1);
+        PricingRule high = rule(2L, DayOfWeek.MONDAY, "12:00", "13:00", "7.00", 5);
+
+        for (List<PricingRule> rules : List.of(List.of(low, high), List.of(high, low))) {
+            PriceTimeline timeline = PriceTimeline.compile(rules);
+            assertPrice("5.00", timeline, DayOfWeek.MONDAY, "11:45");
+            assertPrice("7.00", timeline, DayOfWeek.MONDAY, "12:30");
+            assertPrice("5.00", timeline, DayOfWeek.MONDAY, "13:00");
+        }
+    }
+
+    @Test
+    void newestRuleWinsAtEqualPriority() {
+        PricingRule older = rule(3L, DayOfWeek.MONDAY, "10:00", "14:00", "5.00", 1);
+        PricingRule newer = rule(8L, DayOfWeek.MONDAY, "10:00", "14:00", "7.00", 1);
+
+        assertPrice("7.00", PriceTimeline.compile(List.of(newer, older)), DayOfWeek.MONDAY, "12:00");
+        assertPrice("7.00", PriceTimeline.compile(List.of(older, newer)), DayOfWeek.MONDAY, "12:00");
+    }
+
+    @Test
+    void percentageIsAppliedToThePrice() {
+        PricingRule rule = rule(1L, DayOfWeek.MONDAY, "10:00", "14:00", null, 0);
+        rule.setPercentage(new BigDecimal("-15"));
+
+        assertPrice("8.50", PriceTimeline.compile(List.of(rule)), DayOfWeek.MONDAY, "10:00");
+    }
+
+    @Test
+    void adjustedPricesNeverDropBelowOneCent() {
+        PricingRule rule = rule(1L, DayOfWeek.MONDAY, "10:00", "14:00", null, 0);
+        rule.setPercentage(new BigDecimal("-99.99"));
+        PriceTimeline.Adjustment adjustment = PriceTimeline.compile(List.of(rule))
+                .at(PriceTimeline.slotOf(LocalDateTime.of(2024, 1, 1, 10, 0)));
+
+        assertEquals("0.01", adjustment.apply(new BigDecimal("2.50")).toPlainString());
+        assertEquals("0.01", adjustment.apply(new BigDecimal("100.00")).toPlainString());
+        assertEquals("1.00", adjustment.apply(new BigDecimal("10000.00")).toPlainString());
+    }
+
+    @Test
+    void rulesWithoutDaysCompileToNothing() {
+        PricingRule rule = rule(1L, DayOfWeek.MONDAY, "10:00", "14:00", "5.00", 0);
+        rule.setDaysOfWeek(0);
+
+        assertNull(PriceTimeline.compile(List.of(rule)));
+    }
+
+    private static PricingRule rule(Long id, DayOfWeek day, String start, String end, String price, int priority) {
+        return PricingRule.builder()
+                .id(id)
+                .daysOfWeek(1 << (day.getValue() - 1))
+                .startTime(LocalTime.parse(start))
+                .endTime(LocalTime.parse(end))
+                .price(price != null ? new BigDecimal(price) : null)
+                .priority(priority)
+                .active(true)
+                .build();
+    }
+
+    private static void assertPrice(String expected, PriceTimeline timeline, DayOfWeek day, String time) {
+        assertNotNull(timeline);
+        LocalDateTime at = LocalDateTime.of(2024, 1, 1, 0, 0)
+                .with(TemporalAdjusters.nextOrSame(day))
+                .with(LocalTime.parse(time));
+        PriceTimeline.Adjustment adjustment = timeline.at(PriceTimeline.slotOf(at));
+        assertEquals(expected, adjustment == null ? null : adjustment.apply(BASE_PRICE).toPlainString(),
+                day + " " + time);
+    }
+}